@@ -0,0 +1,106 @@
+-- Converts the ids of recipes, ingredients and steps from IDENTITY columns to the
+-- pooled sequences the entities use (recipes_seq, ingredients_seq, steps_seq, with an
+-- allocation size of 50). spring.jpa.hibernate.ddl-auto=update can do neither, so run
+-- this once against an existing SQL Server database, with the application stopped,
+-- before deploying a version with sequence ids:
+--
+--   sqlcmd -S <server> -d recipe_db -i db/sqlserver/identity-to-sequences.sql
+--
+-- Existing ids keep their values. Every sequence is seeded so that the first block
+-- Hibernate allocates starts right after the current MAX(id). The script runs in one
+-- transaction and can be re-run: converted tables are skipped and a sequence is never
+-- moved backwards.
+
+SET XACT_ABORT ON;
+SET NOCOUNT ON;
+
+BEGIN TRANSACTION;
+
+DECLARE @table SYSNAME, @pk SYSNAME, @sql NVARCHAR(MAX), @next BIGINT;
+DECLARE @foreignKeys TABLE (name SYSNAME, parent SYSNAME, parent_column SYSNAME);
+
+-- The foreign keys to recipes.id and the indexes on the id columns block the conversion, they are put back at the end
+INSERT INTO @foreignKeys (name, parent, parent_column)
+SELECT fk.name, OBJECT_NAME(fk.parent_object_id), COL_NAME(fkc.parent_object_id, fkc.parent_column_id)
+  FROM sys.foreign_keys fk
+  JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+ WHERE fk.referenced_object_id = OBJECT_ID(N'dbo.recipes');
+
+SET @sql = N'';
+SELECT @sql += N'ALTER TABLE dbo.' + QUOTENAME(parent) + N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+  FROM @foreignKeys;
+EXEC sys.sp_executesql @sql;
+
+DROP INDEX IF EXISTS idx_recipes_created_at_id ON dbo.recipes;
+DROP INDEX IF EXISTS idx_recipes_meal_type_created_at_id ON dbo.recipes;
+DROP INDEX IF EXISTS idx_ingredients_recipe_id_id ON dbo.ingredients;
+DROP INDEX IF EXISTS idx_steps_recipe_id_id ON dbo.steps;
+
+DECLARE tables CURSOR LOCAL FAST_FORWARD FOR
+    SELECT name FROM (VALUES (N'recipes'), (N'ingredients'), (N'steps')) AS t (name);
+OPEN tables;
+FETCH NEXT FROM tables INTO @table;
+
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    IF COLUMNPROPERTY(OBJECT_ID(N'dbo.' + @table), N'id', 'IsIdentity') = 1
+    BEGIN
+        -- A column cannot drop IDENTITY, so the ids are copied into a plain column that takes its place
+        SELECT @pk = name
+          FROM sys.key_constraints
+         WHERE parent_object_id = OBJECT_ID(N'dbo.' + @table) AND type = 'PK';
+
+        SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' DROP CONSTRAINT ' + QUOTENAME(@pk);
+        EXEC sys.sp_executesql @sql;
+        SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' ADD id_seq BIGINT NULL';
+        EXEC sys.sp_executesql @sql;
+        SET @sql = N'UPDATE dbo.' + QUOTENAME(@table) + N' SET id_seq = id';
+        EXEC sys.sp_executesql @sql;
+        SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' ALTER COLUMN id_seq BIGINT NOT NULL';
+        EXEC sys.sp_executesql @sql;
+        SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' DROP COLUMN id';
+        EXEC sys.sp_executesql @sql;
+        SET @sql = N'dbo.' + @table + N'.id_seq';
+        EXEC sys.sp_rename @sql, N'id', N'COLUMN';
+        SET @sql = N'ALTER TABLE dbo.' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME(@pk)
+                 + N' PRIMARY KEY CLUSTERED (id)';
+        EXEC sys.sp_executesql @sql;
+    END
+
+    -- Hibernate's pooled optimizer hands out (value - 49) .. value, so MAX(id) + 50 continues after the last id
+    SET @sql = N'SELECT @next = ISNULL(MAX(id), 0) + 50 FROM dbo.' + QUOTENAME(@table);
+    EXEC sys.sp_executesql @sql, N'@next BIGINT OUTPUT', @next = @next OUTPUT;
+
+    IF OBJECT_ID(N'dbo.' + @table + N'_seq', N'SO') IS NULL
+    BEGIN
+        SET @sql = N'CREATE SEQUENCE dbo.' + QUOTENAME(@table + N'_seq') + N' AS BIGINT START WITH '
+                 + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+        EXEC sys.sp_executesql @sql;
+    END
+    -- Created by an earlier start with ddl-auto=update, most likely still at 1
+    ELSE IF (SELECT CAST(current_value AS BIGINT) FROM sys.sequences
+              WHERE object_id = OBJECT_ID(N'dbo.' + @table + N'_seq')) < @next
+    BEGIN
+        SET @sql = N'ALTER SEQUENCE dbo.' + QUOTENAME(@table + N'_seq') + N' RESTART WITH '
+                 + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+        EXEC sys.sp_executesql @sql;
+    END
+
+    FETCH NEXT FROM tables INTO @table;
+END
+
+CLOSE tables;
+DEALLOCATE tables;
+
+CREATE INDEX idx_recipes_created_at_id ON dbo.recipes (created_at DESC, id DESC);
+CREATE INDEX idx_recipes_meal_type_created_at_id ON dbo.recipes (meal_type, created_at DESC, id DESC);
+CREATE INDEX idx_ingredients_recipe_id_id ON dbo.ingredients (recipe_id, id);
+CREATE INDEX idx_steps_recipe_id_id ON dbo.steps (recipe_id, id);
+
+SET @sql = N'';
+SELECT @sql += N'ALTER TABLE dbo.' + QUOTENAME(parent) + N' ADD CONSTRAINT ' + QUOTENAME(name)
+             + N' FOREIGN KEY (' + QUOTENAME(parent_column) + N') REFERENCES dbo.recipes (id);'
+  FROM @foreignKeys;
+EXEC sys.sp_executesql @sql;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,66 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.service.serviceImpl.RecipeGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cleanup and parsing of a chat completion holding five recipes wrapped
+ * in code fences, as done for every non streaming AI generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiResponseBenchmark {
+
+    private RecipeGenerator recipeGenerator;
+    private String responseJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        // Same Jackson defaults as the application's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        recipeGenerator = new RecipeGenerator(null, null, null, null, null, null, null, null, null, objectMapper, null, null, null);
+
+        ArrayNode recipes = objectMapper.createArrayNode();
+        for (int i = 0; i < 5; i++) {
+            ObjectNode recipe = recipes.addObject()
+                    .put("name", "Garlic Chicken " + i)
+                    .put("mealType", MealType.DINNER.name())
+                    .put("cookTimeMinutes", 30 + i);
+            ArrayNode ingredients = recipe.putArray("ingredients");
+            for (int j = 0; j < 8; j++) {
+                ingredients.addObject().put("name", "Ingredient " + j).put("quantity", j + " cups");
+            }
+            ArrayNode steps = recipe.putArray("steps");
+            for (int j = 0; j < 6; j++) {
+                steps.addObject().put("description", "Step " + j + ", stir well.").put("estimatedMinutes", 5);
+            }
+        }
+        String content = "```json\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(recipes)
+                + "\n```";
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putArray("choices").addObject().putObject("message")
+                .put("role", "assistant")
+                .put("content", content);
+        responseJson = objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public List<Recipe> parseCompletion() throws JsonProcessingException {
+        return recipeGenerator.parseCompletion(responseJson);
+    }
+}
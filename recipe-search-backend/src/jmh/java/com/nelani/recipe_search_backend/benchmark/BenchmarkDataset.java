@@ -0,0 +1,100 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.RecipeSearchBackendApplication;
+import com.nelani.recipe_search_backend.model.MealType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application against an in-memory H2 database and fills it with a
+ * synthetic catalog so benchmarks can exercise the real repositories.
+ */
+public final class BenchmarkDataset {
+
+    private static final String[] ADJECTIVES = {
+            "Spicy", "Creamy", "Smoky", "Roasted", "Crispy", "Garlic", "Lemon", "Honey", "Herbed", "Sticky"
+    };
+    private static final String[] PROTEINS = {
+            "Chicken", "Beef", "Pork", "Salmon", "Tofu", "Shrimp", "Lamb", "Turkey", "Chickpea", "Mushroom"
+    };
+    private static final String[] DISHES = {
+            "Curry", "Stew", "Salad", "Tacos", "Pasta", "Soup", "Bowl", "Skewers", "Stir Fry", "Pie"
+    };
+    private static final String[] INGREDIENTS = {
+            "onion", "garlic", "tomato", "chicken stock", "olive oil", "rice", "coconut milk", "ginger",
+            "carrot", "potato", "spinach", "lemon juice", "soy sauce", "honey", "chili flakes", "butter",
+            "flour", "cream", "parsley", "cumin", "paprika", "bell pepper", "beans", "cheddar"
+    };
+    private static final int BATCH_SIZE = 5_000;
+
+    private BenchmarkDataset() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(RecipeSearchBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--HUGGINGFACE_API_KEY=benchmark",
+                        "--UNSPLASH_API_KEY=benchmark");
+    }
+
+    /**
+     * Inserts {@code recipeCount} recipes, each with three ingredients and one step,
+     * using plain JDBC batches so large datasets load in seconds.
+     */
+    public static void populate(JdbcTemplate jdbcTemplate, int recipeCount) {
+        Random random = new Random(42);
+        MealType[] mealTypes = MealType.values();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> recipes = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> ingredients = new ArrayList<>(BATCH_SIZE * 3);
+        List<Object[]> steps = new ArrayList<>(BATCH_SIZE);
+        long ingredientId = 1;
+
+        for (long id = 1; id <= recipeCount; id++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + PROTEINS[random.nextInt(PROTEINS.length)] + " "
+                    + DISHES[random.nextInt(DISHES.length)] + " " + id;
+            recipes.add(new Object[] {
+                    id, 10 + random.nextInt(170), Timestamp.valueOf(now.minusMinutes(id)),
+                    "https://images.example.com/" + id + ".jpg",
+                    mealTypes[random.nextInt(mealTypes.length)].name(), name, "recipe-" + id
+            });
+            for (int i = 0; i < 3; i++) {
+                ingredients.add(new Object[] {
+                        ingredientId++, INGREDIENTS[random.nextInt(INGREDIENTS.length)], "1 cup", id
+                });
+            }
+            steps.add(new Object[] { id, "Cook everything together.", 20, id });
+
+            if (recipes.size() == BATCH_SIZE || id == recipeCount) {
+                flush(jdbcTemplate, recipes, ingredients, steps);
+            }
+        }
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, List<Object[]> recipes, List<Object[]> ingredients,
+            List<Object[]> steps) {
+        jdbcTemplate.batchUpdate("INSERT INTO recipes (id, cook_time_minutes, created_at, image_url, meal_type, "
+                + "name, public_id) VALUES (?, ?, ?, ?, ?, ?, ?)", recipes);
+        jdbcTemplate.batchUpdate("INSERT INTO ingredients (id, name, quantity, recipe_id) VALUES (?, ?, ?, ?)",
+                ingredients);
+        jdbcTemplate.batchUpdate("INSERT INTO steps (id, description, estimated_minutes, recipe_id) "
+                + "VALUES (?, ?, ?, ?)", steps);
+        recipes.clear();
+        ingredients.clear();
+        steps.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.model.DateFilter;
+import com.nelani.recipe_search_backend.util.DateRangeUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the date window computation done for every filtered recipe listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateRangeBenchmark {
+
+    @Param({ "ALL", "TODAY", "THIS_WEEK", "THIS_MONTH" })
+    private DateFilter dateFilter;
+
+    @Benchmark
+    public LocalDateTime[] getDateRange() {
+        return DateRangeUtil.getDateRange(dateFilter);
+    }
+}
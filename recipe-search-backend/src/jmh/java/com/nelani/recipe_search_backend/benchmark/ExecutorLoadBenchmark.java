@@ -0,0 +1,123 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.config.AsyncConfig;
+import com.nelani.recipe_search_backend.throttling.Upstream;
+import com.nelani.recipe_search_backend.throttling.UpstreamLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for the generation executor: each operation submits a burst of
+ * generations that block on a simulated Hugging Face call and waits for all of them.
+ * Compares the platform pool with the virtual thread executor and reports rejected
+ * generations and peak RSS next to the batch time. Virtual threads need Java 21+, on
+ * older JVMs the virtual trials fail and only the platform numbers are reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xms512m", "-Xmx512m" })
+public class ExecutorLoadBenchmark {
+
+    @Param({ "platform", "virtual" })
+    private String threading;
+
+    @Param({ "500", "5000" })
+    private int generations;
+
+    @Param({ "50" })
+    private int upstreamLatencyMs;
+
+    @Param({ "20" })
+    private int upstreamConcurrency;
+
+    private Executor executor;
+    private UpstreamLimiter upstreamLimiter;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LoadCounters {
+        public long rejected;
+        public long peakRssKb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rejected = 0;
+            peakRssKb = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (threading.equals("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on " + Runtime.version());
+        }
+        AsyncConfig asyncConfig = new AsyncConfig();
+        executor = threading.equals("virtual")
+                ? asyncConfig.virtualRecipeTaskExecutor(new SimpleMeterRegistry())
+                : asyncConfig.recipeTaskExecutor(new SimpleMeterRegistry());
+        upstreamLimiter = new UpstreamLimiter(upstreamConcurrency, upstreamConcurrency, upstreamConcurrency,
+                Duration.ofMinutes(5));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Benchmark
+    public void generationBurst(LoadCounters counters) {
+        List<CompletableFuture<Void>> running = new ArrayList<>(generations);
+        for (int i = 0; i < generations; i++) {
+            try {
+                running.add(CompletableFuture.runAsync(
+                        () -> upstreamLimiter.run(Upstream.HUGGING_FACE, this::simulateUpstreamCall), executor));
+            } catch (RejectedExecutionException e) {
+                counters.rejected++;
+            }
+        }
+
+        // Every accepted generation is now either waiting or running
+        counters.peakRssKb = Math.max(counters.peakRssKb, residentSetSizeKb());
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void simulateUpstreamCall() {
+        try {
+            Thread.sleep(upstreamLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long residentSetSizeKb() {
+        try {
+            return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException | NumberFormatException e) {
+            return -1; // Not on Linux
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.mapper.RecipeMapper;
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.model.Step;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures entity to DTO mapping for list views (minimal) and the detail view (all
+ * details) with a typical number of ingredients and steps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeMapperBenchmark {
+
+    @Param({ "8" })
+    private int ingredientCount;
+
+    @Param({ "6" })
+    private int stepCount;
+
+    private Recipe recipe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < ingredientCount; i++) {
+            ingredients.add(Ingredient.builder().name("Ingredient " + i).quantity(i + " tbsp").build());
+        }
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < stepCount; i++) {
+            steps.add(Step.builder().description("Do step " + i + " until golden.").estimatedMinutes(5).build());
+        }
+        recipe = Recipe.builder()
+                .publicId("chicken-curry-a1b2c3")
+                .name("Chicken Curry")
+                .imageUrl("https://images.example.com/chicken-curry.jpg")
+                .mealType(MealType.DINNER)
+                .cookTimeMinutes(45)
+                .ingredients(ingredients)
+                .steps(steps)
+                .build();
+    }
+
+    @Benchmark
+    public RecipeDto mapRecipeWithMinimalDetails() {
+        return RecipeMapper.mapRecipeWithMinimalDetails(recipe);
+    }
+
+    @Benchmark
+    public RecipeDto mapRecipeWithAllDetails() {
+        return RecipeMapper.mapRecipeWithAllDetails(recipe);
+    }
+}
@@ -0,0 +1,32 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.model.Recipe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the public id generation that runs before every recipe insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeModelBenchmark {
+
+    private Recipe recipe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        recipe = Recipe.builder().name("Spicy Chicken & Chickpea Curry (30 min)").build();
+    }
+
+    @Benchmark
+    public String generatePublicId() {
+        recipe.setPublicId(null);
+        recipe.generatePublicId();
+        return recipe.getPublicId();
+    }
+}
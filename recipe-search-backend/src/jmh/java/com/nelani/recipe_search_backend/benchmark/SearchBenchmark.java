@@ -0,0 +1,66 @@
+package com.nelani.recipe_search_backend.benchmark;
+
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
+import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndexLoader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the LIKE based {@code searchRecipes} query with the in-memory inverted index
+ * for the first page of results at increasing catalog sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms4g", "-Xmx4g" })
+public class SearchBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int recipeCount;
+
+    @Param({ "chicken", "garlic" })
+    private String searchWord;
+
+    @Param({ "5" })
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private RecipeRepository recipeRepository;
+    private RecipeSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start("search_" + recipeCount);
+        BenchmarkDataset.populate(context.getBean(JdbcTemplate.class), recipeCount);
+
+        recipeRepository = context.getBean(RecipeRepository.class);
+        searchIndex = context.getBean(RecipeSearchIndex.class);
+        context.getBean(RecipeSearchIndexLoader.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RecipeDto> databaseLikeQuery() {
+        return recipeRepository.searchRecipes(searchWord, PageRequest.of(0, pageSize));
+    }
+
+    @Benchmark
+    public List<RecipeSummaryRow> invertedIndex() {
+        List<Long> ids = searchIndex.search(searchWord, 0, pageSize);
+        return recipeRepository.findSummariesByIdIn(ids);
+    }
+}
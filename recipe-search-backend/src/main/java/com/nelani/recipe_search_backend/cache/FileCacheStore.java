@@ -0,0 +1,237 @@
+package com.nelani.recipe_search_backend.cache;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Second cache tier that keeps serialized cache values in files under a local
+ * directory, one sub directory per cache. Entries outlive restarts so the on-heap
+ * caches can be warmed from disk instead of from SQL Server or the AI provider.
+ * The store has its own TTL and a bound on the total size of its files, the entries
+ * closest to expiry are dropped first when the bound is exceeded. Failures are
+ * logged and treated as misses, the store is never the source of truth.
+ */
+@Log4j2
+public class FileCacheStore {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".bin";
+
+    // Only cache payloads may be read back from disk
+    private static final ObjectInputFilter PAYLOAD_FILTER = ObjectInputFilter.Config.createFilter(
+            "com.nelani.recipe_search_backend.dto.*;com.nelani.recipe_search_backend.model.*;"
+                    + "java.lang.*;java.util.*;java.time.*;maxdepth=20;!*");
+
+    private record StoredEntry(long sizeBytes, long expiresAtMillis) {
+    }
+
+    private final Path directory;
+    private final Duration ttl;
+    private final long maxSizeBytes;
+    private final Clock clock;
+
+    private final Map<Path, StoredEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalSizeBytes = new AtomicLong();
+
+    public FileCacheStore(Path directory, Duration ttl, long maxSizeBytes) {
+        this(directory, ttl, maxSizeBytes, Clock.systemUTC());
+    }
+
+    FileCacheStore(Path directory, Duration ttl, long maxSizeBytes, Clock clock) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxSizeBytes = maxSizeBytes;
+        this.clock = clock;
+        loadExistingEntries();
+    }
+
+    /**
+     * Reads an entry written by {@link #put}, possibly before a restart.
+     *
+     * @param cacheName The cache the entry belongs to.
+     * @param key       The cache key, identified by its {@code toString()}.
+     * @return The value, or {@code null} if it is missing, expired or unreadable.
+     */
+    public Object get(String cacheName, Object key) {
+        Path file = fileFor(cacheName, key);
+        StoredEntry entry = entries.get(file);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            remove(file);
+            return null;
+        }
+
+        Object value = read(file);
+        if (value == null) {
+            remove(file);
+        }
+        return value;
+    }
+
+    public void put(String cacheName, Object key, Object value) {
+        if (!(value instanceof Serializable)) {
+            return;
+        }
+        Path file = fileFor(cacheName, key);
+        long expiresAtMillis = clock.millis() + ttl.toMillis();
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(expiresAtMillis);
+                try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+                    objectOut.writeObject(value);
+                }
+            }
+
+            // Write to a temporary file and move it in place so readers never see half an entry
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "entry", ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            track(file, new StoredEntry(bytes.size(), expiresAtMillis));
+            enforceSizeBound();
+        } catch (IOException e) {
+            log.warn("Failed to write cache file {}", file, e);
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        remove(fileFor(cacheName, key));
+    }
+
+    public void clear(String cacheName) {
+        Path cacheDirectory = directory.resolve(cacheName);
+        List.copyOf(entries.keySet()).stream()
+                .filter(file -> file.getParent().equals(cacheDirectory))
+                .forEach(this::remove);
+    }
+
+    public long sizeBytes() {
+        return totalSizeBytes.get();
+    }
+
+    private void loadExistingEntries() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long now = clock.millis();
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                // Leftovers of writes interrupted by a shutdown
+                if (!file.toString().endsWith(SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                long expiresAtMillis = readExpiry(file);
+                if (expiresAtMillis <= now) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                track(file, new StoredEntry(Files.size(file), expiresAtMillis));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan cache directory {}", directory, e);
+        }
+        enforceSizeBound();
+        log.info("Loaded {} cache entries ({} bytes) from {}", entries.size(), totalSizeBytes.get(), directory);
+    }
+
+    // Zero for files from another format version or that cannot be read
+    private static long readExpiry(Path file) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == FORMAT_VERSION ? in.readLong() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void track(Path file, StoredEntry entry) {
+        StoredEntry previous = entries.put(file, entry);
+        totalSizeBytes.addAndGet(entry.sizeBytes() - (previous == null ? 0 : previous.sizeBytes()));
+    }
+
+    private void remove(Path file) {
+        StoredEntry entry = entries.remove(file);
+        if (entry != null) {
+            totalSizeBytes.addAndGet(-entry.sizeBytes());
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cache file {}", file, e);
+        }
+    }
+
+    private void enforceSizeBound() {
+        if (totalSizeBytes.get() <= maxSizeBytes) {
+            return;
+        }
+        List<Map.Entry<Path, StoredEntry>> oldestFirst = new ArrayList<>(entries.entrySet());
+        oldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()));
+        for (Map.Entry<Path, StoredEntry> entry : oldestFirst) {
+            if (totalSizeBytes.get() <= maxSizeBytes) {
+                break;
+            }
+            remove(entry.getKey());
+        }
+    }
+
+    private Path fileFor(String cacheName, Object key) {
+        return directory.resolve(cacheName).resolve(hash(String.valueOf(key)) + SUFFIX);
+    }
+
+    private static Object read(Path file) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            in.readLong(); // Expiry, already known from the index
+            try (ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                objectIn.setObjectInputFilter(PAYLOAD_FILTER);
+                return objectIn.readObject();
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.warn("Dropping unreadable cache file {}", file, e);
+            return null;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.nelani.recipe_search_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nelani.recipe_search_backend.datasource.PrimaryReads;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.util.SearchTermUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Caches search result pages keyed by normalized term, page and size, so "Chicken"
+ * and " chicken " share an entry while page 2 never returns page 1. Entries are
+ * served stale while they are reloaded in the background, either because they are
+ * older than the refresh interval or because new recipes were saved for the term.
+ * Empty pages expire quickly so a term that just got generated recipes does not stay
+ * empty for long. With the file cache enabled, pages are also written to disk and a
+ * page found there after a restart is served and revalidated like a stale one.
+ */
+@Component
+@Log4j2
+public class SearchResultCache implements MeterBinder {
+
+    /**
+     * Loads one page of search results for an already normalized term.
+     */
+    @FunctionalInterface
+    public interface SearchLoader {
+        List<RecipeDto> load(String term, int page, int size);
+    }
+
+    private record SearchKey(String term, int page, int size) {
+    }
+
+    private record CachedPage(List<RecipeDto> recipes, SearchLoader loader, long loadedAtNanos) {
+    }
+
+    static final String CACHE_NAME = "search";
+
+    private final Cache<SearchKey, CachedPage> cache;
+    // Keys being reloaded, mapped to true once a write asked for another reload
+    private final Map<SearchKey, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final Duration refreshAfter;
+    private final Executor refreshExecutor;
+    private final FileCacheStore fileCacheStore;
+
+    public SearchResultCache(@Value("${recipe.search.cache.ttl:P1D}") Duration ttl,
+            @Value("${recipe.search.cache.empty-ttl:PT1M}") Duration emptyTtl,
+            @Value("${recipe.search.cache.refresh-after:PT5M}") Duration refreshAfter,
+            @Value("${recipe.search.cache.max-size:500}") long maxSize,
+            @Qualifier("recipeTaskExecutor") Executor refreshExecutor,
+            @Nullable FileCacheStore fileCacheStore) {
+        this.refreshAfter = refreshAfter;
+        this.refreshExecutor = refreshExecutor;
+        this.fileCacheStore = fileCacheStore;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<SearchKey, CachedPage>() {
+                    @Override
+                    public long expireAfterCreate(SearchKey key, CachedPage value, long currentTime) {
+                        return (value.recipes().isEmpty() ? emptyTtl : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(SearchKey key, CachedPage value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(SearchKey key, CachedPage value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Not managed by the CacheManager, so the stats are bound here. Prometheus needs the same tag keys as the managed caches
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, "cache.manager", "searchResultCache", "name", CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached page, loading it on a miss. A page older than the refresh
+     * interval is returned as is and reloaded in the background.
+     *
+     * @param searchWord The raw search word, normalized before lookup.
+     * @param page       Zero based page number.
+     * @param size       Page size.
+     * @param loader     Loads the page on a miss and on later refreshes.
+     * @return The cached or freshly loaded page.
+     */
+    public List<RecipeDto> get(String searchWord, int page, int size, SearchLoader loader) {
+        SearchKey key = new SearchKey(SearchTermUtil.normalize(searchWord), page, size);
+        CachedPage cached = cache.get(key, k -> {
+            CachedPage stored = readStored(k, loader);
+            return stored != null ? stored : load(k, loader);
+        });
+
+        if (System.nanoTime() - cached.loadedAtNanos() > refreshAfter.toNanos()) {
+            refreshAsync(key, cached.loader(), false);
+        }
+        return cached.recipes();
+    }
+
+    /**
+     * @param searchWord The raw search word, normalized before lookup.
+     * @return True if the page is held in memory, without loading or refreshing it.
+     */
+    public boolean contains(String searchWord, int page, int size) {
+        return cache.getIfPresent(new SearchKey(SearchTermUtil.normalize(searchWord), page, size)) != null;
+    }
+
+    /**
+     * Reloads every cached page of a term in the background, e.g. after new recipes
+     * were saved for it. Readers keep getting the current pages until the reload lands.
+     * The reload reads from the primary, a read replica may not have the new recipes yet.
+     * A page already being reloaded is reloaded once more when that reload finishes,
+     * since it may have read the term before the new recipes were committed.
+     *
+     * @param searchWord The raw search word, normalized before lookup.
+     */
+    public void refreshTerm(String searchWord) {
+        String term = SearchTermUtil.normalize(searchWord);
+        cache.asMap().forEach((key, cached) -> {
+            if (key.term().equals(term)) {
+                refreshAsync(key, cached.loader(), true);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void refreshAsync(SearchKey key, SearchLoader loader, boolean afterWrite) {
+        // One reload per key at a time, a write during a reload marks the key for another one.
+        // If the running reload finished in between, loop and start the reload here
+        while (refreshing.putIfAbsent(key, Boolean.FALSE) != null) {
+            if (!afterWrite || refreshing.computeIfPresent(key, (k, again) -> Boolean.TRUE) != null) {
+                return;
+            }
+        }
+        try {
+            CompletableFuture.supplyAsync(() -> afterWrite
+                            ? PrimaryReads.call(() -> load(key, loader))
+                            : load(key, loader), refreshExecutor)
+                    .whenComplete((reloaded, error) -> {
+                        if (error != null) {
+                            log.warn("Failed to refresh search results for '{}', keeping the stale page", key.term(),
+                                    error);
+                        } else {
+                            cache.put(key, reloaded);
+                        }
+                        if (refreshing.remove(key)) {
+                            refreshAsync(key, loader, true);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            // Executor saturated, the stale page stays until the next attempt
+            refreshing.remove(key);
+        }
+    }
+
+    private CachedPage load(SearchKey key, SearchLoader loader) {
+        CachedPage loaded = new CachedPage(loader.load(key.term(), key.page(), key.size()), loader, System.nanoTime());
+        store(key, loaded);
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CachedPage readStored(SearchKey key, SearchLoader loader) {
+        if (fileCacheStore == null || !(fileCacheStore.get(CACHE_NAME, key) instanceof List<?> recipes)) {
+            return null;
+        }
+        // Age unknown, mark it due for refresh so it is revalidated on first read
+        long dueForRefresh = System.nanoTime() - refreshAfter.toNanos() - 1;
+        return new CachedPage((List<RecipeDto>) recipes, loader, dueForRefresh);
+    }
+
+    private void store(SearchKey key, CachedPage page) {
+        // Empty pages are short lived, not worth keeping across restarts
+        if (fileCacheStore != null && !page.recipes().isEmpty()) {
+            fileCacheStore.put(CACHE_NAME, key, page.recipes());
+        }
+    }
+
+}
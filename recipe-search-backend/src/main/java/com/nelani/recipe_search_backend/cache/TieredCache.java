@@ -0,0 +1,92 @@
+package com.nelani.recipe_search_backend.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link Cache} that reads through an on-heap first tier to the
+ * {@link FileCacheStore}. A value found on disk is copied into the first tier, so
+ * after a restart the heap cache warms lazily from disk as keys are requested.
+ * Writes and evictions go to both tiers.
+ */
+public class TieredCache implements Cache {
+
+    private final Cache firstTier;
+    private final FileCacheStore secondTier;
+
+    public TieredCache(Cache firstTier, FileCacheStore secondTier) {
+        this.firstTier = firstTier;
+        this.secondTier = secondTier;
+    }
+
+    @Override
+    public String getName() {
+        return firstTier.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return firstTier.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = firstTier.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object stored = secondTier.get(getName(), key);
+        if (stored == null) {
+            return null;
+        }
+        firstTier.put(key, stored);
+        return new SimpleValueWrapper(stored);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper cached = get(key);
+        Object value = cached == null ? null : cached.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return firstTier.get(key, () -> {
+            Object stored = secondTier.get(getName(), key);
+            if (stored != null) {
+                return (T) stored;
+            }
+            T loaded = valueLoader.call();
+            secondTier.put(getName(), key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        firstTier.put(key, value);
+        secondTier.put(getName(), key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        firstTier.evict(key);
+        secondTier.evict(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        firstTier.clear();
+        secondTier.clear(getName());
+    }
+
+}
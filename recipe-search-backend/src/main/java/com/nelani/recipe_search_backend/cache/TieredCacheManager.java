@@ -0,0 +1,43 @@
+package com.nelani.recipe_search_backend.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the caches of another manager in a {@link TieredCache} backed by the
+ * {@link FileCacheStore}. Only the named caches get the second tier, the rest are
+ * returned unchanged.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final CacheManager firstTierManager;
+    private final FileCacheStore secondTier;
+    private final Set<String> tieredCacheNames;
+    private final Map<String, Cache> tieredCaches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager firstTierManager, FileCacheStore secondTier, Set<String> tieredCacheNames) {
+        this.firstTierManager = firstTierManager;
+        this.secondTier = secondTier;
+        this.tieredCacheNames = tieredCacheNames;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = firstTierManager.getCache(name);
+        if (cache == null || !tieredCacheNames.contains(name)) {
+            return cache;
+        }
+        return tieredCaches.computeIfAbsent(name, key -> new TieredCache(cache, secondTier));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return firstTierManager.getCacheNames();
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.nelani.recipe_search_backend.catalog;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nelani.recipe_search_backend.dto.CatalogRecipeDto;
+import com.nelani.recipe_search_backend.dto.IngredientDto;
+import com.nelani.recipe_search_backend.dto.StepDto;
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the whole catalog as NDJSON, one recipe with its ingredients and steps per
+ * line. Recipes are read in clustered id order, one batch of {@code fetch-size} at a
+ * time; the ingredients and steps of a batch come from two queries over its id range,
+ * ordered by recipe id and attached to their recipes before the batch is written.
+ * Nothing needs sorting beyond one batch, and only one batch is held in memory.
+ * The export holds a connection for as long as the client takes to download it, so
+ * it is off unless enabled and only one export runs at a time.
+ */
+@Component
+@Log4j2
+public class CatalogExporter {
+
+    // Keyset pagination on the primary key, each batch is a seek on the clustered index
+    private static final String RECIPES_SQL = """
+            SELECT id, public_id, name, image_url, meal_type, cook_time_minutes, created_at
+              FROM recipes
+             WHERE id > ?
+             ORDER BY id
+             OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY
+            """;
+
+    private static final String INGREDIENTS_SQL = """
+            SELECT recipe_id, name, quantity
+              FROM ingredients
+             WHERE recipe_id BETWEEN ? AND ?
+             ORDER BY recipe_id, id
+            """;
+
+    private static final String STEPS_SQL = """
+            SELECT recipe_id, description, estimated_minutes
+              FROM steps
+             WHERE recipe_id BETWEEN ? AND ?
+             ORDER BY recipe_id, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter recipeWriter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CatalogExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${recipe.catalog.export.enabled:false}") boolean enabled,
+            @Value("${recipe.catalog.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // The response is flushed by its own buffer, not after every line
+        this.recipeWriter = objectMapper.writerFor(CatalogRecipeDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams every recipe to the output, oldest first. Only one export runs at a time.
+     *
+     * @param out The stream to write to, left open.
+     * @return The number of recipes written.
+     * @throws IllegalStateException If exports are disabled or another export is running.
+     */
+    public long export(OutputStream out) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Catalog export is disabled.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A catalog export is already running.");
+        }
+
+        // Checked before the transaction, so a rejected export never takes a connection
+        try {
+            return readOnlyTransaction.execute(status -> write(out));
+        } catch (UncheckedIOException e) {
+            // Usually the client going away mid-download
+            throw e.getCause();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long write(OutputStream out) {
+        long start = System.currentTimeMillis();
+        long written = 0;
+        long afterId = 0L;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            while (true) {
+                Map<Long, CatalogRecipeDto> batch = new LinkedHashMap<>();
+                jdbcTemplate.query(RECIPES_SQL, rs -> {
+                    batch.put(rs.getLong("id"), CatalogRecipeDto.builder()
+                            .publicId(rs.getString("public_id"))
+                            .name(rs.getString("name"))
+                            .imageUrl(rs.getString("image_url"))
+                            .mealType(MealType.valueOf(rs.getString("meal_type")))
+                            .cookTimeMinutes(rs.getInt("cook_time_minutes"))
+                            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                            .build());
+                }, afterId, fetchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(batch.keySet());
+                long firstId = ids.get(0);
+                long lastId = ids.get(ids.size() - 1);
+
+                // Children arrive grouped by recipe and in insertion order within it
+                jdbcTemplate.query(INGREDIENTS_SQL, rs -> {
+                    CatalogRecipeDto recipe = batch.get(rs.getLong("recipe_id"));
+                    if (recipe != null) {
+                        recipe.getIngredients().add(new IngredientDto(rs.getString("name"), rs.getString("quantity")));
+                    }
+                }, firstId, lastId);
+                jdbcTemplate.query(STEPS_SQL, rs -> {
+                    CatalogRecipeDto recipe = batch.get(rs.getLong("recipe_id"));
+                    if (recipe != null) {
+                        recipe.getSteps().add(new StepDto(rs.getString("description"), rs.getInt("estimated_minutes")));
+                    }
+                }, firstId, lastId);
+
+                for (CatalogRecipeDto recipe : batch.values()) {
+                    recipeWriter.writeValue(generator, recipe);
+                    generator.writeRaw('\n');
+                }
+                written += batch.size();
+                afterId = lastId;
+            }
+
+            log.info("Exported {} recipes in {} ms", written, System.currentTimeMillis() - start);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
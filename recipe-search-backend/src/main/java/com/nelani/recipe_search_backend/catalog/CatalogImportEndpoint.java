@@ -0,0 +1,25 @@
+package com.nelani.recipe_search_backend.catalog;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the progress of the running or last catalog import at {@code /actuator/catalog}.
+ */
+@Component
+@Endpoint(id = "catalog")
+public class CatalogImportEndpoint {
+
+    private final CatalogImporter catalogImporter;
+
+    public CatalogImportEndpoint(CatalogImporter catalogImporter) {
+        this.catalogImporter = catalogImporter;
+    }
+
+    @ReadOperation
+    public CatalogImportStatus status() {
+        return catalogImporter.status();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.nelani.recipe_search_backend.catalog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogImportStatus {
+    private CatalogImporter.State state;
+    private int linesRead;
+    private int imported;
+    private int skipped;
+    private int invalid;
+    private int chunks;
+    private List<String> errors;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+}
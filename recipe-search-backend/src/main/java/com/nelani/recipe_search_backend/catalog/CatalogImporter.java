@@ -0,0 +1,326 @@
+package com.nelani.recipe_search_backend.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.dto.CatalogRecipeDto;
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.model.Step;
+import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a catalog export back into the database. The NDJSON input is read one line
+ * at a time and every recipe is validated against the entity constraints before it
+ * is queued; valid recipes are inserted in chunks, each in its own transaction, so
+ * Hibernate can batch the inserts and only a chunk that clashes with a concurrent
+ * insert falls back to one recipe at a time.
+ * Recipes whose public id or name already exists are skipped, which makes an import
+ * safe to re-run. Progress is exposed through the {@code catalog} actuator endpoint.
+ */
+@Component
+@Log4j2
+public class CatalogImporter {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Enough to spot a systematic problem without keeping every bad line of a huge file
+    private static final int MAX_REPORTED_ERRORS = 50;
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final Validator validator;
+    private final ObjectReader lineReader;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeSimilarityIndex recipeSimilarityIndex;
+    private final IngredientBitmapIndex ingredientBitmapIndex;
+    private final SearchResultCache searchResultCache;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile State state = State.IDLE;
+    private final AtomicInteger linesRead = new AtomicInteger();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger invalid = new AtomicInteger();
+    private final AtomicInteger chunks = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    public CatalogImporter(RecipeRepository recipeRepository, PlatformTransactionManager transactionManager,
+            Validator validator, ObjectMapper objectMapper, RecipeSearchIndex recipeSearchIndex,
+            RecipeSimilarityIndex recipeSimilarityIndex, IngredientBitmapIndex ingredientBitmapIndex,
+            SearchResultCache searchResultCache,
+            @Value("${recipe.catalog.import.enabled:false}") boolean enabled,
+            @Value("${recipe.catalog.import.chunk-size:500}") int chunkSize) {
+        this.recipeRepository = recipeRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.validator = validator;
+        this.lineReader = objectMapper.readerFor(CatalogRecipeDto.class);
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeSimilarityIndex = recipeSimilarityIndex;
+        this.ingredientBitmapIndex = ingredientBitmapIndex;
+        this.searchResultCache = searchResultCache;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports an NDJSON catalog, one recipe per line. Only one import runs at a time.
+     *
+     * @param in The export to read, not closed.
+     * @return The final counts of the import.
+     * @throws IllegalStateException If imports are disabled or another import is running.
+     */
+    public CatalogImportStatus importCatalog(InputStream in) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Catalog import is disabled.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A catalog import is already running.");
+        }
+
+        linesRead.set(0);
+        imported.set(0);
+        skipped.set(0);
+        invalid.set(0);
+        chunks.set(0);
+        errors.clear();
+        startedAt = Instant.now();
+        finishedAt = null;
+        state = State.RUNNING;
+        log.info("Catalog import started");
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<Recipe> chunk = new ArrayList<>(chunkSize);
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                linesRead.incrementAndGet();
+
+                Recipe recipe = parse(lineNumber, line);
+                if (recipe == null) {
+                    continue;
+                }
+                chunk.add(recipe);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk);
+            }
+            state = State.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            state = State.FAILED;
+            log.error("Catalog import failed after {} lines", linesRead.get(), e);
+            throw e;
+        } finally {
+            finishedAt = Instant.now();
+            // Cached searches may now be missing the imported recipes
+            searchResultCache.invalidateAll();
+            running.set(false);
+        }
+
+        log.info("Catalog import finished: {} imported, {} skipped, {} invalid in {} ms", imported.get(),
+                skipped.get(), invalid.get(), Duration.between(startedAt, finishedAt).toMillis());
+        return status();
+    }
+
+    public CatalogImportStatus status() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return CatalogImportStatus.builder()
+                .state(state)
+                .linesRead(linesRead.get())
+                .imported(imported.get())
+                .skipped(skipped.get())
+                .invalid(invalid.get())
+                .chunks(chunks.get())
+                .errors(errors.isEmpty() ? null : List.copyOf(errors))
+                .startedAt(start)
+                .finishedAt(finishedAt)
+                .durationMs(start == null ? null : Duration.between(start, end).toMillis())
+                .build();
+    }
+
+    /**
+     * @return The recipe on the line, or null if the line is not a valid recipe.
+     */
+    private Recipe parse(int lineNumber, String line) {
+        CatalogRecipeDto dto;
+        try {
+            dto = lineReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(lineNumber, "malformed JSON, " + e.getOriginalMessage());
+            return null;
+        }
+
+        Recipe recipe = toRecipe(dto);
+        List<String> problems = validator.validate(recipe).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (dto.getMealType() == null) {
+            problems.add("Meal type is required");
+        }
+        if (dto.getCookTimeMinutes() == null || dto.getCookTimeMinutes() < 0) {
+            problems.add("Cook time must be zero or more minutes");
+        }
+        if (!problems.isEmpty()) {
+            reject(lineNumber, String.join(", ", problems));
+            return null;
+        }
+        return recipe;
+    }
+
+    private void reject(int lineNumber, String reason) {
+        invalid.incrementAndGet();
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private void insertChunk(List<Recipe> chunk) {
+        List<Recipe> saved = trySaveNew(chunk);
+        if (saved == null) {
+            // The chunk clashed with a recipe saved meanwhile, insert what still fits one by one
+            saved = new ArrayList<>();
+            for (Recipe recipe : chunk) {
+                resetIds(recipe);
+                List<Recipe> single = trySaveNew(List.of(recipe));
+                if (single != null) {
+                    saved.addAll(single);
+                }
+            }
+        }
+
+        recipeSearchIndex.indexAll(saved);
+        recipeSimilarityIndex.indexAll(saved);
+        ingredientBitmapIndex.indexAll(saved);
+
+        imported.addAndGet(saved.size());
+        skipped.addAndGet(chunk.size() - saved.size());
+        log.info("Catalog import chunk {}: {} of {} recipes saved, {} imported so far", chunks.incrementAndGet(),
+                saved.size(), chunk.size(), imported.get());
+    }
+
+    /**
+     * Inserts the recipes whose public id and name are not taken, in a transaction of
+     * their own.
+     *
+     * @return The inserted recipes, or null if the insert hit a unique constraint.
+     */
+    private List<Recipe> trySaveNew(List<Recipe> recipes) {
+        try {
+            return chunkTransaction.execute(status -> saveNew(recipes));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Insert of {} imported recipes failed: {}", recipes.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Recipe> saveNew(List<Recipe> recipes) {
+        // Duplicates within the chunk itself keep their first occurrence
+        Map<String, Recipe> candidates = new LinkedHashMap<>();
+        recipes.forEach(recipe -> candidates.putIfAbsent(recipe.getName(), recipe));
+        Set<String> publicIds = candidates.values().stream()
+                .map(Recipe::getPublicId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Set<String> existingNames = recipeRepository.findExistingNames(candidates.keySet());
+        Set<String> existingPublicIds = publicIds.isEmpty()
+                ? Collections.emptySet()
+                : recipeRepository.findExistingPublicIds(publicIds);
+        List<Recipe> newRecipes = candidates.values().stream()
+                .filter(recipe -> !existingNames.contains(recipe.getName()))
+                .filter(recipe -> recipe.getPublicId() == null || !existingPublicIds.contains(recipe.getPublicId()))
+                .toList();
+        if (newRecipes.isEmpty()) {
+            return newRecipes;
+        }
+
+        recipeRepository.saveAll(newRecipes);
+        return newRecipes;
+    }
+
+    private static Recipe toRecipe(CatalogRecipeDto dto) {
+        Recipe recipe = Recipe.builder()
+                .publicId(dto.getPublicId() == null || dto.getPublicId().isBlank() ? null : dto.getPublicId())
+                .name(dto.getName())
+                .imageUrl(dto.getImageUrl())
+                .mealType(dto.getMealType())
+                .cookTimeMinutes(dto.getCookTimeMinutes())
+                .ingredients(dto.getIngredients() == null ? new ArrayList<>() : dto.getIngredients().stream()
+                        .map(ingredient -> Ingredient.builder()
+                                .name(ingredient.getName())
+                                .quantity(ingredient.getQuantity())
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .steps(dto.getSteps() == null ? new ArrayList<>() : dto.getSteps().stream()
+                        .map(step -> Step.builder()
+                                .description(step.getDescription())
+                                .estimatedMinutes(step.getEstimatedMinutes())
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+        if (dto.getCreatedAt() != null) {
+            recipe.setCreatedAt(dto.getCreatedAt());
+        }
+        return recipe;
+    }
+
+    private static void resetIds(Recipe recipe) {
+        recipe.setId(null);
+        recipe.getIngredients().forEach(ingredient -> ingredient.setId(null));
+        recipe.getSteps().forEach(step -> step.setId(null));
+    }
+
+}
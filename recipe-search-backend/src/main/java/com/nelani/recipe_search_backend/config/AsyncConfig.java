@@ -1,8 +1,16 @@
 package com.nelani.recipe_search_backend.config;
 
+import com.nelani.recipe_search_backend.metrics.ExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
@@ -10,28 +18,112 @@ import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     @Bean(name = "recipeTaskExecutor")
-    public Executor recipeTaskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor recipeTaskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);          // Minimum threads
         executor.setMaxPoolSize(50);           // Maximum threads
         executor.setQueueCapacity(500);        // Queue size for waiting tasks
         executor.setThreadNamePrefix("Recipe-"); // Thread name prefix
+        executor.setRejectedExecutionHandler(ExecutorMetrics.countingAbortPolicy(meterRegistry, "recipeTaskExecutor"));
         executor.initialize();
         return executor;
     }
 
     @Bean(name = "emailTaskExecutor")
-    public Executor mailTaskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor mailTaskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);          // Minimum threads
         executor.setMaxPoolSize(40);           // Maximum threads
         executor.setQueueCapacity(500);        // Queue size for waiting tasks
         executor.setThreadNamePrefix("Mail-"); // Thread name prefix
+        executor.setRejectedExecutionHandler(ExecutorMetrics.countingAbortPolicy(meterRegistry, "emailTaskExecutor"));
         executor.initialize();
         return executor;
     }
-    
+
+    // Pool size is the global cap on concurrent Unsplash lookups
+    @Bean(name = "imageTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor imageTaskExecutor(@Value("${recipe.images.max-concurrency:10}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);  // Minimum threads
+        executor.setMaxPoolSize(maxConcurrency);   // Maximum threads
+        executor.setQueueCapacity(500);            // Queue size for waiting tasks
+        executor.setThreadNamePrefix("Image-");    // Thread name prefix
+        executor.setRejectedExecutionHandler(ExecutorMetrics.countingAbortPolicy(meterRegistry, "imageTaskExecutor"));
+        executor.initialize();
+        return executor;
+    }
+
+    // Reads streamed AI completions, one thread per Hugging Face permit
+    @Bean(name = "aiStreamTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor aiStreamTaskExecutor(@Value("${recipe.upstream.hugging-face.max-concurrency:20}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);   // Minimum threads
+        executor.setMaxPoolSize(maxConcurrency);    // Maximum threads
+        executor.setQueueCapacity(500);             // Queue size for waiting tasks
+        executor.setThreadNamePrefix("AiStream-");  // Thread name prefix
+        executor.setRejectedExecutionHandler(ExecutorMetrics.countingAbortPolicy(meterRegistry, "aiStreamTaskExecutor"));
+        executor.initialize();
+        return executor;
+    }
+
+    // A single thread, the warm-up replays its queries one at a time
+    @Bean(name = "warmupTaskExecutor")
+    public Executor warmupTaskExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);             // Minimum threads
+        executor.setMaxPoolSize(1);              // Maximum threads
+        executor.setQueueCapacity(10);           // Queue size for waiting tasks
+        executor.setThreadNamePrefix("Warmup-"); // Thread name prefix
+        executor.setRejectedExecutionHandler(ExecutorMetrics.countingAbortPolicy(meterRegistry, "warmupTaskExecutor"));
+        executor.initialize();
+        return executor;
+    }
+
+    // With spring.threads.virtual.enabled on Java 21+ every task gets its own virtual
+    // thread, concurrency towards each upstream is capped by the UpstreamLimiter instead.
+    // There is no pool or queue to meter, so only the running tasks are counted
+
+    @Bean(name = "recipeTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualRecipeTaskExecutor(MeterRegistry meterRegistry) {
+        return virtualExecutor("Recipe-", ExecutorMetrics.activeTaskGauge(meterRegistry, "recipeTaskExecutor"));
+    }
+
+    @Bean(name = "emailTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualMailTaskExecutor(MeterRegistry meterRegistry) {
+        return virtualExecutor("Mail-", ExecutorMetrics.activeTaskGauge(meterRegistry, "emailTaskExecutor"));
+    }
+
+    @Bean(name = "imageTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualImageTaskExecutor(MeterRegistry meterRegistry) {
+        return virtualExecutor("Image-", ExecutorMetrics.activeTaskGauge(meterRegistry, "imageTaskExecutor"));
+    }
+
+    @Bean(name = "aiStreamTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualAiStreamTaskExecutor(MeterRegistry meterRegistry) {
+        return virtualExecutor("AiStream-", ExecutorMetrics.activeTaskGauge(meterRegistry, "aiStreamTaskExecutor"));
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, TaskDecorator taskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(taskDecorator);
+        executor.setTaskTerminationTimeout(30_000); // Let running tasks finish on shutdown
+        return executor;
+    }
+
 }
@@ -1,52 +1,98 @@
 package com.nelani.recipe_search_backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nelani.recipe_search_backend.cache.FileCacheStore;
+import com.nelani.recipe_search_backend.cache.TieredCache;
+import com.nelani.recipe_search_backend.cache.TieredCacheManager;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
-@EnableCaching
+// Caching wraps the transaction advice, so a cache hit never opens a transaction or takes a connection
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfig {
 
     @Bean
-    public CaffeineCacheManager cacheManager() {
+    @ConditionalOnProperty(name = "recipe.cache.l2.enabled", havingValue = "true")
+    public FileCacheStore fileCacheStore(@Value("${recipe.cache.l2.directory}") Path directory,
+            @Value("${recipe.cache.l2.ttl:P7D}") Duration ttl,
+            @Value("${recipe.cache.l2.max-size:256MB}") DataSize maxSize) {
+        return new FileCacheStore(directory, ttl, maxSize.toBytes());
+    }
+
+    @Bean
+    public CacheManager cacheManager(@Nullable FileCacheStore fileCacheStore,
+            // Not "recipes": its keys use relative date filters, so its pages must not outlive the 1 day L1 TTL
+            @Value("${recipe.cache.l2.caches:recipe}") Set<String> tieredCacheNames) {
         // No names in constructor → global/default cache applies to any cache name
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
 
         // Set default cache spec (30 days TTL, 1000 max entries)
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(Duration.ofDays(30))
-                .maximumSize(1500));
-
-        // Register caches with custom TTLs
-        cacheManager.registerCustomCache("AI recipes", Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofDays(1))
-                .maximumSize(500)
-                .build());
+                .maximumSize(1500)
+                .recordStats());
 
         // Register caches with custom TTLs
         cacheManager.registerCustomCache("recipes", Caffeine.newBuilder()
                 .expireAfterWrite(Duration.ofDays(1))
                 .maximumSize(500)
+                .recordStats()
                 .build());
 
         // Register caches with custom TTLs
         cacheManager.registerCustomCache("meal-types", Caffeine.newBuilder()
                 .expireAfterWrite(Duration.ofDays(7))
                 .maximumSize(500)
+                .recordStats()
                 .build());
 
         // Register caches with custom TTLs
         cacheManager.registerCustomCache("date-filters", Caffeine.newBuilder()
                 .expireAfterWrite(Duration.ofDays(7))
                 .maximumSize(500)
+                .recordStats()
+                .build());
+
+        // Rendered email bodies, keyed by recipe and template version
+        cacheManager.registerCustomCache("email-bodies", Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofDays(1))
+                .maximumSize(1000)
+                .recordStats()
                 .build());
 
-        return cacheManager;
+        // Create the default spec caches up front so their stats are bound to the meter registry at startup
+        cacheManager.getCache("recipe");
+        cacheManager.getCache("recipe-details");
+
+        // Optional file backed second tier, survives restarts
+        if (fileCacheStore == null) {
+            return cacheManager;
+        }
+        return new TieredCacheManager(cacheManager, fileCacheStore, tieredCacheNames);
+    }
+
+    // Tiered caches report the hit/miss/eviction stats of their on-heap tier
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> cache.getNativeCache() instanceof Cache<?, ?> nativeCache
+                ? new CaffeineCacheMetrics<>(nativeCache, cache.getName(), tags)
+                : null;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.nelani.recipe_search_backend.config;
+
+import com.nelani.recipe_search_backend.datasource.ReplicaLagMonitor;
+import com.nelani.recipe_search_backend.datasource.ReplicaRoutingDataSource;
+import com.nelani.recipe_search_backend.datasource.WriteTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits database traffic between the primary and a read replica once
+ * {@code recipe.datasource.replica.url} is set; without it the single auto-configured
+ * pool is used as before. Connections are only taken from a pool when a transaction
+ * runs its first statement, by then {@code @Transactional(readOnly = true)} has marked
+ * the connection read-only and it is served by the {@link ReplicaRoutingDataSource}.
+ * Everything else, including every write, uses the primary. Both pools are Hikari
+ * beans, so each reports its own {@code hikaricp.*} metrics.
+ */
+@Configuration
+@ConditionalOnExpression("!'${recipe.datasource.replica.url:}'.isBlank()")
+public class DataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${recipe.datasource.replica.url}") String url,
+            @Value("${recipe.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${recipe.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${recipe.datasource.replica.max-pool-size:10}") int maxPoolSize,
+            @Value("${recipe.datasource.replica.connection-timeout:PT2S}") Duration connectionTimeout) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        // A replica that is down must fail fast, the lag check and reads then fall back to the primary
+        dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        dataSource.setValidationTimeout(connectionTimeout.toMillis());
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${recipe.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${recipe.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, lagQuery, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primaryDataSource, replicaLagMonitor));
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, meterRegistry));
+        return dataSource;
+    }
+
+}
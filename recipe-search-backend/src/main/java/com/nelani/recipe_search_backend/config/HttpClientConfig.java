@@ -0,0 +1,92 @@
+package com.nelani.recipe_search_backend.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * One pooled, keep-alive HTTP client shared by every outbound call (Hugging Face,
+ * Unsplash) so connections and TLS sessions are reused instead of being opened per
+ * request, and a hung upstream can no longer hold a worker thread forever.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${recipe.http.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${recipe.http.read-timeout:PT60S}")
+    private Duration readTimeout;
+
+    @Value("${recipe.http.pool-acquire-timeout:PT5S}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${recipe.http.idle-timeout:PT1M}")
+    private Duration idleTimeout;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+            @Value("${recipe.http.max-connections:100}") int maxConnections,
+            @Value("${recipe.http.max-connections-per-host:20}") int maxConnectionsPerHost) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate outboundRestTemplate(CloseableHttpClient outboundHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(outboundHttpClient));
+    }
+
+    // Same pool, but an image lookup gives up once its batch deadline has passed instead of holding
+    // an image executor thread for the full read timeout
+    @Bean
+    public RestTemplate imageRestTemplate(CloseableHttpClient outboundHttpClient,
+            @Value("${recipe.images.batch-timeout:PT5S}") Duration batchTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+                outboundHttpClient);
+        requestFactory.setConnectionRequestTimeout(batchTimeout);
+        requestFactory.setReadTimeout(batchTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
+    // Leased, available, pending and max connections per pool under /actuator/metrics
+    @Bean
+    public MeterBinder outboundConnectionPoolMetrics(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(outboundConnectionManager, "outbound");
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.nelani.recipe_search_backend.controller;
+
+import com.nelani.recipe_search_backend.catalog.CatalogExporter;
+import com.nelani.recipe_search_backend.catalog.CatalogImportStatus;
+import com.nelani.recipe_search_backend.catalog.CatalogImporter;
+import com.nelani.recipe_search_backend.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Bulk export and import of the recipe catalog as NDJSON, for backups and for
+ * seeding other environments. Both directions stream, so the catalog is never held
+ * in memory as a whole.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private final CatalogExporter catalogExporter;
+    private final CatalogImporter catalogImporter;
+
+    public CatalogController(CatalogExporter catalogExporter, CatalogImporter catalogImporter) {
+        this.catalogExporter = catalogExporter;
+        this.catalogImporter = catalogImporter;
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCatalog(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"");
+        catalogExporter.export(response.getOutputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<CatalogImportStatus> importCatalog(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(catalogImporter.importCatalog(request.getInputStream()));
+    }
+
+    // Export or import disabled or already running
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalStateException(IllegalStateException ex) {
+        ErrorResponse error = new ErrorResponse("Conflict", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+}
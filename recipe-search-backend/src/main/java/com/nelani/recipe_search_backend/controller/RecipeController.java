@@ -1,16 +1,25 @@
 package com.nelani.recipe_search_backend.controller;
 
+import com.nelani.recipe_search_backend.controller.RecipeDetailRenderer.RenderedRecipe;
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeFeedPageDto;
 import com.nelani.recipe_search_backend.model.DateFilter;
 import com.nelani.recipe_search_backend.model.MealType;
 import com.nelani.recipe_search_backend.service.RecipeService;
+import com.nelani.recipe_search_backend.warmup.QueryHistoryRecorder;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -19,9 +28,18 @@ import java.util.List;
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final QueryHistoryRecorder queryHistoryRecorder;
+    private final RecipeDetailRenderer recipeDetailRenderer;
+    private final CacheControl recipeCacheControl;
 
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, QueryHistoryRecorder queryHistoryRecorder,
+            RecipeDetailRenderer recipeDetailRenderer,
+            @Value("${recipe.http.recipe-max-age:P30D}") Duration recipeMaxAge) {
         this.recipeService = recipeService;
+        this.queryHistoryRecorder = queryHistoryRecorder;
+        this.recipeDetailRenderer = recipeDetailRenderer;
+        // Saved recipes never change, clients and proxies may keep them without revalidating
+        this.recipeCacheControl = CacheControl.maxAge(recipeMaxAge).cachePublic().immutable();
     }
 
     @GetMapping("/meal-types")
@@ -36,10 +54,68 @@ public class RecipeController {
         return ResponseEntity.ok(DateFilter.values());
     }
 
+    @GetMapping("/similar")
+    public ResponseEntity<?> findSimilarRecipes(
+            @RequestParam @NotBlank(message = "Query cannot be blank") String query,
+            @RequestParam(defaultValue = "5") int size
+    ) {
+        List<RecipeDto> recipes = recipeService.findSimilarRecipes(query, size);
+        return ResponseEntity.ok(recipes);
+    }
+
+    @GetMapping("/cook-with")
+    public ResponseEntity<?> cookWith(
+            @RequestParam(required = false) List<String> pantry,
+            @RequestParam(defaultValue = "0") int maxMissing,
+            @RequestParam(required = false) List<String> allOf,
+            @RequestParam(required = false) List<String> anyOf,
+            @RequestParam(required = false) List<String> noneOf,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) Integer startTime,
+            @RequestParam(required = false) Integer endTime,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CookWithQuery query = CookWithQuery.builder()
+                .pantry(pantry == null ? List.of() : pantry)
+                .maxMissing(maxMissing)
+                .allOf(allOf == null ? List.of() : allOf)
+                .anyOf(anyOf == null ? List.of() : anyOf)
+                .noneOf(noneOf == null ? List.of() : noneOf)
+                .mealType(mealType)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+        List<RecipeDto> recipes = recipeService.cookWith(query, page, size);
+        return ResponseEntity.ok(recipes);
+    }
+
+    @GetMapping("/{publicId}/similar")
+    public ResponseEntity<?> getSimilarRecipes(
+            @PathVariable @NotBlank(message = "Recipe Id cannot be blank") String publicId,
+            @RequestParam(defaultValue = "5") int size
+    ) {
+        List<RecipeDto> recipes = recipeService.getSimilarRecipes(publicId, size);
+        return ResponseEntity.ok(recipes);
+    }
+
     @GetMapping("/{publicId}")
-    public ResponseEntity<?> getRecipe(@PathVariable @NotBlank(message = "Recipe Id cannot be blank") String publicId) {
-        RecipeDto recipe = recipeService.getRecipe(publicId);
-        return ResponseEntity.ok(recipe);
+    public ResponseEntity<?> getRecipe(@PathVariable @NotBlank(message = "Recipe Id cannot be blank") String publicId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RenderedRecipe recipe = recipeDetailRenderer.render(publicId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(recipeCacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        // Spring answers a matching If-None-Match with 304 and drops the body
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(recipe.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(recipe.gzip());
+        }
+        return response.eTag(recipe.etag())
+                .body(recipe.json());
     }
 
     @GetMapping
@@ -48,6 +124,7 @@ public class RecipeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size
     ) {
+        queryHistoryRecorder.recordSearch(searchWord, page, size);
         List<RecipeDto> recipes = recipeService.getRecipes(searchWord, page, size);
         return ResponseEntity.ok(recipes);
     }
@@ -61,10 +138,24 @@ public class RecipeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
+        queryHistoryRecorder.recordFilter(startTime, endTime, mealType, dateFilter, page, size);
         List<RecipeDto> recipes = recipeService.getRecipesByTimeAndMealType(startTime, endTime, mealType, dateFilter, page, size);
         return ResponseEntity.ok(recipes);
     }
 
+    @GetMapping("/all-recipes/feed")
+    public ResponseEntity<?> getRecipeFeed(
+            @RequestParam(defaultValue = "0") int startTime,
+            @RequestParam(defaultValue = "180") int endTime,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(defaultValue = "ALL") DateFilter dateFilter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        RecipeFeedPageDto feedPage = recipeService.getRecipeFeed(startTime, endTime, mealType, dateFilter, cursor, size);
+        return ResponseEntity.ok(feedPage);
+    }
+
     @PostMapping("/email-recipe")
     public ResponseEntity<?> emailRecipe(
             @RequestParam
@@ -77,4 +168,17 @@ public class RecipeController {
         return ResponseEntity.ok("Recipe has been successfully sent to " + email);
     }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
 }
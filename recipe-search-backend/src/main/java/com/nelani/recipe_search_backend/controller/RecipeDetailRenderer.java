@@ -0,0 +1,77 @@
+package com.nelani.recipe_search_backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelani.recipe_search_backend.service.RecipeService;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes and gzips recipe details once per recipe. Saved recipes never change, so
+ * both encodings and their strong ETags are cached together and every later request,
+ * including conditional ones answered with 304, is served without touching Jackson or
+ * the compressor. Tomcat refuses to compress responses carrying a strong ETag, which
+ * is why the compressed variant is produced here.
+ */
+@Component
+public class RecipeDetailRenderer {
+
+    /**
+     * JSON body of a recipe detail response, its gzip encoding and the ETag derived
+     * from the body. Each encoding is a distinct representation with its own ETag.
+     */
+    public record RenderedRecipe(String etag, byte[] json, byte[] gzip) implements Serializable {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private final RecipeService recipeService;
+    private final ObjectMapper objectMapper;
+
+    public RecipeDetailRenderer(RecipeService recipeService, ObjectMapper objectMapper) {
+        this.recipeService = recipeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Cacheable(value = "recipe-details", key = "#publicId")
+    public RenderedRecipe render(String publicId) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(recipeService.getRecipe(publicId));
+            return new RenderedRecipe(etag(json), json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recipe " + publicId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Hash of the body rather than the id, so a change to the response format invalidates client copies
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.nelani.recipe_search_backend.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends the read-only transactions of a block of work to the primary, whatever the
+ * {@link ReplicaLagMonitor} reports. Used for reads that must see a write made on
+ * another thread, such as reloading the search pages of a term right after recipes
+ * were saved for it. Without a read replica configured this has no effect.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Runs the work with every read-only transaction it starts served by the primary.
+     *
+     * @param work The reads to run.
+     * @return The result of the work.
+     */
+    public static <T> T call(Supplier<T> work) {
+        Boolean previous = FORCED.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            } else {
+                FORCED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return True while the current thread runs inside {@link #call(Supplier)}.
+     */
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+
+}
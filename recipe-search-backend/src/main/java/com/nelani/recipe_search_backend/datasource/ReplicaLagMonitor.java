@@ -0,0 +1,119 @@
+package com.nelani.recipe_search_backend.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Decides whether read-only transactions may use the replica. The replica is
+ * checked on a fixed delay: it must accept connections, and the lag query, run on
+ * the primary, must report it at most {@code maxLag} behind. A thread that committed
+ * on the primary also reads from the primary for {@code maxLag} afterwards, so it can
+ * read back what it just wrote; every other thread relies on the measured lag.
+ */
+@Log4j2
+public class ReplicaLagMonitor {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replicaDataSource;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    // Unknown until the first check, reads use the primary meanwhile
+    private volatile boolean replicaHealthy;
+    private volatile double lagSeconds = Double.NaN;
+    // Per thread, a commit must not send every other reader to the primary
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+
+    /**
+     * @param lagQuery A query returning how many seconds the replica is behind, run on
+     *                 the primary; blank to only check that the replica is reachable.
+     */
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, String lagQuery,
+            Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+
+        Gauge.builder("recipe.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Seconds the read replica is behind the primary")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("recipe.datasource.replica.healthy", this, monitor -> monitor.replicaHealthy ? 1 : 0)
+                .description("Whether the read replica is reachable and within the allowed lag")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.datasource.replica.check-interval:PT5S}")
+    public void check() {
+        Double lag = isReachable() ? measureLag() : null;
+        lagSeconds = lag == null ? Double.NaN : lag;
+
+        // In millis, so a sub-second max lag is not truncated to zero
+        boolean healthy = lag != null && lag * 1000 <= maxLag.toMillis();
+        if (healthy != replicaHealthy) {
+            if (healthy) {
+                log.info("Read replica is available, lag {}s", lag);
+            } else {
+                log.warn("Read replica is unavailable or lagging (lag {}s), reading from the primary", lag);
+            }
+        }
+        replicaHealthy = healthy;
+    }
+
+    /**
+     * @return True if a read-only transaction starting now on this thread may read from
+     *         the replica.
+     */
+    public boolean isReplicaUsable() {
+        if (!replicaHealthy) {
+            return false;
+        }
+        Long lastWrite = lastWriteNanos.get();
+        return lastWrite == null || System.nanoTime() - lastWrite >= maxLag.toNanos();
+    }
+
+    /**
+     * Called on the committing thread when a transaction commits on the primary.
+     */
+    public void recordWrite() {
+        lastWriteNanos.set(System.nanoTime());
+    }
+
+    private boolean isReachable() {
+        try (Connection connection = replicaDataSource.getConnection()) {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            log.debug("Read replica check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return The replica lag in seconds, or null if it could not be measured.
+     */
+    private Double measureLag() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0.0;
+        }
+        try {
+            Number lag = primaryJdbcTemplate.queryForObject(lagQuery, Number.class);
+            return lag == null ? 0.0 : lag.doubleValue();
+        } catch (DataAccessException e) {
+            log.debug("Replica lag query failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.nelani.recipe_search_backend.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * The data source for read-only transactions: the replica while the
+ * {@link ReplicaLagMonitor} allows it and the thread is not inside
+ * {@link PrimaryReads}, the primary otherwise. Each connection handed out is counted
+ * per pool.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Pool {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        this.replicaReads = readCounter(meterRegistry, "replica");
+
+        setTargetDataSources(Map.of(Pool.PRIMARY, primaryDataSource, Pool.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!PrimaryReads.isForced() && replicaLagMonitor.isReplicaUsable()) {
+            replicaReads.increment();
+            return Pool.REPLICA;
+        }
+        primaryReads.increment();
+        return Pool.PRIMARY;
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("recipe.datasource.reads")
+                .description("Connections handed to read-only transactions")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+}
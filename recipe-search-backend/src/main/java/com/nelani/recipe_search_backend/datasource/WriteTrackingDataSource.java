@@ -0,0 +1,62 @@
+package com.nelani.recipe_search_backend.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps the primary pool and tells the {@link ReplicaLagMonitor} about every commit
+ * of a read-write connection. All writes here go through transactions, so a commit
+ * is the moment new rows start travelling to the replica.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public WriteTrackingDataSource(DataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        super(primaryDataSource);
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (method.getName().equals("commit") && !connection.isReadOnly()) {
+                        replicaLagMonitor.recordWrite();
+                    }
+                    return result;
+                });
+    }
+
+}
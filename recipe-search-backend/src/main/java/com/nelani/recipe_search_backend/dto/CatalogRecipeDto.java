@@ -0,0 +1,35 @@
+package com.nelani.recipe_search_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a catalog export: a recipe with everything needed to recreate it,
+ * including its public id and creation time so links and feed order survive a
+ * round trip.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogRecipeDto {
+    private String publicId;
+    private String name;
+    private String imageUrl;
+    private MealType mealType;
+    private Integer cookTimeMinutes;
+    private LocalDateTime createdAt;
+    @Builder.Default
+    private List<IngredientDto> ingredients = new ArrayList<>();
+    @Builder.Default
+    private List<StepDto> steps = new ArrayList<>();
+}
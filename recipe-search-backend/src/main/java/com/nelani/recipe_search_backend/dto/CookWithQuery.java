@@ -0,0 +1,37 @@
+package com.nelani.recipe_search_backend.dto;
+
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A "what can I cook with" query. Ingredient lists are free text and matched by
+ * word, so "chicken" matches both "chicken thighs" and "chicken stock".
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CookWithQuery {
+
+    // Recipes using the ingredients I have, missing at most maxMissing of their own
+    @Builder.Default
+    private List<String> pantry = List.of();
+    private int maxMissing;
+
+    // Recipes using every one, at least one, and none of these
+    @Builder.Default
+    private List<String> allOf = List.of();
+    @Builder.Default
+    private List<String> anyOf = List.of();
+    @Builder.Default
+    private List<String> noneOf = List.of();
+
+    private MealType mealType;
+    private Integer startTime;
+    private Integer endTime;
+}
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.util.List;
 
 @Data
@@ -14,7 +15,10 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class RecipeDto {
+public class RecipeDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private String publicId;
     private String name;
     private String imageUrl;
@@ -23,4 +27,12 @@ public class RecipeDto {
 
     private List<IngredientDto> ingredients;
     private List<StepDto> steps;
+
+    // Only set on cook-with results, how many of the recipe's ingredients the pantry lacks
+    private Integer missingIngredients;
+
+    // Used by the list view projections in RecipeRepository, which select only these columns
+    public RecipeDto(String publicId, String name, String imageUrl, MealType mealType, Integer cookTimeMinutes) {
+        this(publicId, name, imageUrl, mealType, cookTimeMinutes, null, null, null);
+    }
 }
@@ -0,0 +1,21 @@
+package com.nelani.recipe_search_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecipeFeedPageDto {
+    private List<RecipeDto> recipes;
+
+    // Opaque cursor for the next page, absent on the last page
+    private String nextCursor;
+}
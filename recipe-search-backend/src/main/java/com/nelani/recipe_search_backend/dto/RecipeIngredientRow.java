@@ -0,0 +1,17 @@
+package com.nelani.recipe_search_backend.dto;
+
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeIngredientRow {
+    private Long recipeId;
+    private String recipeName;
+    private MealType mealType;
+    private Integer cookTimeMinutes;
+    private String ingredientName;
+}
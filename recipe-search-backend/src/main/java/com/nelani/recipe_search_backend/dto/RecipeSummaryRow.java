@@ -0,0 +1,26 @@
+package com.nelani.recipe_search_backend.dto;
+
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a recipe shown in list views, plus the id and creation time needed
+ * to order results and build feed cursors. Selected directly by JPQL constructor
+ * expressions, no entity is loaded.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeSummaryRow {
+    private Long id;
+    private LocalDateTime createdAt;
+    private String publicId;
+    private String name;
+    private String imageUrl;
+    private MealType mealType;
+    private Integer cookTimeMinutes;
+}
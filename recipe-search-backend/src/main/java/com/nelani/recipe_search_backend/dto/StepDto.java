@@ -6,12 +6,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class StepDto {
+public class StepDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private String description;
     private int estimatedMinutes;
 }
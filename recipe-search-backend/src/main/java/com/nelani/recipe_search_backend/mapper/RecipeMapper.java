@@ -2,6 +2,7 @@ package com.nelani.recipe_search_backend.mapper;
 
 import com.nelani.recipe_search_backend.dto.IngredientDto;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
 import com.nelani.recipe_search_backend.dto.StepDto;
 import com.nelani.recipe_search_backend.model.Ingredient;
 import com.nelani.recipe_search_backend.model.Recipe;
@@ -21,6 +22,16 @@ public class RecipeMapper {
                 .build();
     }
 
+    public static RecipeDto mapRecipeSummary(RecipeSummaryRow row) {
+        return RecipeDto.builder()
+                .publicId(row.getPublicId())
+                .name(row.getName())
+                .imageUrl(row.getImageUrl())
+                .mealType(row.getMealType())
+                .cookTimeMinutes(row.getCookTimeMinutes())
+                .build();
+    }
+
     public static RecipeDto mapRecipeWithAllDetails(Recipe recipe) {
         List<IngredientDto> ingredientDtos = recipe.getIngredients().stream()
                 .map(RecipeMapper::mapIngredient)
@@ -0,0 +1,68 @@
+package com.nelani.recipe_search_backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the task executors that Spring Boot does not bind by itself. Pool
+ * sizes, active threads and queue depth of a {@code ThreadPoolTaskExecutor} are
+ * published as {@code executor.*} tagged with the bean name, these helpers add the
+ * missing pieces under the same names and tags.
+ */
+public final class ExecutorMetrics {
+
+    private ExecutorMetrics() {
+    }
+
+    /**
+     * Aborts like the default policy but counts every rejection first.
+     *
+     * @param meterRegistry The registry to publish {@code executor.rejected} to.
+     * @param name          The executor name tag, e.g. {@code recipeTaskExecutor}.
+     * @return The handler to install on the pool.
+     */
+    public static RejectedExecutionHandler countingAbortPolicy(MeterRegistry meterRegistry, String name) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("name", name)
+                .register(meterRegistry);
+        ThreadPoolExecutor.AbortPolicy abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+
+        return (task, executor) -> {
+            rejected.increment();
+            abortPolicy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * Counts running tasks for executors without a pool, such as one virtual thread
+     * per task, and publishes the count as {@code executor.active}.
+     *
+     * @param meterRegistry The registry to publish the gauge to.
+     * @param name          The executor name tag, e.g. {@code recipeTaskExecutor}.
+     * @return The decorator to install on the executor.
+     */
+    public static TaskDecorator activeTaskGauge(MeterRegistry meterRegistry, String name) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("The approximate number of threads that are actively executing tasks")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        return task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nelani.recipe_search_backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the hot paths of the application. Every timer carries an {@code outcome} tag
+ * ({@code success} or {@code error}) and publishes a percentile histogram, so p99
+ * latencies can be derived per outcome from the Prometheus buckets.
+ */
+@Component
+public class RecipeMetrics {
+
+    public static final String AI_REQUEST = "recipe.ai.request";
+    public static final String AI_PARSE = "recipe.ai.parse";
+    public static final String IMAGE_REQUEST = "recipe.images.request";
+    public static final String DB_SEARCH = "recipe.db.search";
+    public static final String DB_FILTER = "recipe.db.filter";
+    public static final String DB_SAVE = "recipe.db.save";
+    public static final String SOCKET_PUSH = "recipe.socket.push";
+    public static final String EMAIL_SEND = "recipe.email.send";
+
+    /**
+     * A call that may throw a checked exception. When it throws none the compiler
+     * infers {@code RuntimeException} and callers need no try block.
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface TimedRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    private record TimerKey(String name, String outcome, List<String> tags) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    // Building and registering a timer on every call allocates on the hot path, look it up once
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public RecipeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the call and records its duration under the given timer name.
+     *
+     * @param name The timer name, one of the constants of this class.
+     * @param call The work to time.
+     * @param tags Extra tag key/value pairs, e.g. {@code "source", "index"}.
+     * @return The result of the call.
+     * @throws E Whatever the call throws, after recording it with {@code outcome=error}.
+     */
+    public <T, E extends Exception> T call(String name, TimedCall<T, E> call, String... tags) throws E {
+        long start = meterRegistry.config().clock().monotonicTime();
+        String outcome = "error";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsed = meterRegistry.config().clock().monotonicTime() - start;
+            timer(name, outcome, tags).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public <E extends Exception> void run(String name, TimedRunnable<E> task, String... tags) throws E {
+        call(name, () -> {
+            task.run();
+            return null;
+        }, tags);
+    }
+
+    private Timer timer(String name, String outcome, String... tags) {
+        return timers.computeIfAbsent(new TimerKey(name, outcome, List.of(tags)), key -> Timer.builder(name)
+                .tags(Tags.of(tags).and("outcome", outcome))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+}
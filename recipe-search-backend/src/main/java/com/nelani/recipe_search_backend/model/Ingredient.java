@@ -9,12 +9,15 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "ingredients")
+@Table(name = "ingredients", indexes = {
+        @Index(name = "idx_ingredients_recipe_id_id", columnList = "recipe_id, id")
+})
 @Access(AccessType.FIELD)
 public class Ingredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredients_seq_gen")
+    @SequenceGenerator(name = "ingredients_seq_gen", sequenceName = "ingredients_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "VARCHAR(255)")
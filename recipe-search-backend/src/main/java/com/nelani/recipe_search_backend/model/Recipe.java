@@ -14,13 +14,19 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+        @Index(name = "idx_recipes_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_recipes_meal_type_created_at_id", columnList = "meal_type, created_at DESC, id DESC")
+})
 @Access(AccessType.FIELD)
 @Builder
 public class Recipe {
 
+    // Pooled sequence ids let Hibernate batch inserts, IDENTITY would force one round trip per row.
+    // Databases created with IDENTITY ids are converted by db/sqlserver/identity-to-sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq_gen")
+    @SequenceGenerator(name = "recipes_seq_gen", sequenceName = "recipes_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
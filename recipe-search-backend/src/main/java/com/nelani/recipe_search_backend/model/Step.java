@@ -8,13 +8,16 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "steps")
+@Table(name = "steps", indexes = {
+        @Index(name = "idx_steps_recipe_id_id", columnList = "recipe_id, id")
+})
 @Access(AccessType.FIELD)
 @Builder
 public class Step {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "steps_seq_gen")
+    @SequenceGenerator(name = "steps_seq_gen", sequenceName = "steps_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -0,0 +1,287 @@
+package com.nelani.recipe_search_backend.notifications;
+
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
+import com.nelani.recipe_search_backend.throttling.Upstream;
+import com.nelani.recipe_search_backend.throttling.UpstreamLimiter;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends queued emails over long lived SMTP connections. Each worker owns one
+ * authenticated transport and reuses it for every message until it has been idle
+ * for a while or fails, instead of paying a TLS handshake and login per email.
+ * Workers take messages off the queue in micro-batches; transient failures (4xx
+ * replies, dropped connections) are retried on a fresh connection with exponential
+ * backoff, permanent ones (5xx replies, rejected addresses, bad credentials) are
+ * logged and dropped.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher implements SmartLifecycle {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Executor emailTaskExecutor;
+    private final UpstreamLimiter upstreamLimiter;
+    private final RecipeMetrics recipeMetrics;
+    private final BlockingQueue<MimeMessage> queue;
+    private final int workers;
+    private final int batchSize;
+    private final Duration batchLinger;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration idleTimeout;
+
+    private volatile boolean running;
+    private CountDownLatch stopped;
+
+    public EmailDispatcher(JavaMailSenderImpl mailSender, @Qualifier("emailTaskExecutor") Executor emailTaskExecutor,
+            UpstreamLimiter upstreamLimiter, RecipeMetrics recipeMetrics,
+            @Value("${recipe.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${recipe.mail.workers:2}") int workers,
+            @Value("${recipe.mail.batch-size:20}") int batchSize,
+            @Value("${recipe.mail.batch-linger:PT0.2S}") Duration batchLinger,
+            @Value("${recipe.mail.max-attempts:3}") int maxAttempts,
+            @Value("${recipe.mail.retry-backoff:PT1S}") Duration retryBackoff,
+            @Value("${recipe.mail.idle-timeout:PT30S}") Duration idleTimeout) {
+        this.mailSender = mailSender;
+        this.emailTaskExecutor = emailTaskExecutor;
+        this.upstreamLimiter = upstreamLimiter;
+        this.recipeMetrics = recipeMetrics;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.batchLinger = batchLinger;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.idleTimeout = idleTimeout;
+    }
+
+    // Workers run for the lifetime of the application, each holds one thread of the mail executor
+    @Override
+    public void start() {
+        running = true;
+        stopped = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            emailTaskExecutor.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues a message for delivery without waiting for the SMTP server.
+     *
+     * @param message The message, with recipients, subject and body set.
+     * @return {@code false} if the queue is full and the message was dropped.
+     */
+    public boolean enqueue(MimeMessage message) {
+        if (!running) {
+            log.error("Email dispatcher is stopped, dropping message");
+            return false;
+        }
+        if (!queue.offer(message)) {
+            log.error("Email queue full, dropping message");
+            return false;
+        }
+        return true;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    // Workers send what is still queued, then close their connections. Runs before the
+    // mail executor stops, which would otherwise wait for the workers to return
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (!stopped.await(10, TimeUnit.SECONDS)) {
+                log.warn("Email workers did not finish, {} messages left unsent", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void work() {
+        Transport transport = null;
+        long lastUsedNanos = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                List<MimeMessage> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    // Give the connection back to the server instead of letting it time out on us
+                    if (transport != null && System.nanoTime() - lastUsedNanos > idleTimeout.toNanos()) {
+                        transport = close(transport);
+                    }
+                    continue;
+                }
+
+                // One NOOP per batch to detect connections the server dropped while idle
+                if (transport != null && !transport.isConnected()) {
+                    transport = close(transport);
+                }
+                for (MimeMessage message : batch) {
+                    transport = deliver(transport, message);
+                }
+                lastUsedNanos = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+            stopped.countDown();
+        }
+    }
+
+    // Blocks for the first message, then waits briefly for more to fill the batch
+    private List<MimeMessage> nextBatch() throws InterruptedException {
+        List<MimeMessage> batch = new ArrayList<>(batchSize);
+        MimeMessage first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + batchLinger.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            MimeMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Sends one message, retrying transient failures on a new connection.
+     *
+     * @return The transport to reuse for the next message, or {@code null} if it was closed.
+     */
+    private Transport deliver(Transport transport, MimeMessage message) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transport = transport != null ? transport : connect();
+                Transport connected = transport;
+                recipeMetrics.run(RecipeMetrics.EMAIL_SEND, () -> sendWithinLimit(connected, message));
+                return transport;
+            } catch (MessagingException e) {
+                transport = close(transport);
+                if (!isTransient(e) || attempt >= maxAttempts) {
+                    log.error("Failed to send email after {} attempt(s)", attempt, e);
+                    return null;
+                }
+
+                long backoffMillis = retryBackoff.toMillis() << (attempt - 1);
+                log.warn("Transient email failure, retrying in {} ms: {}", backoffMillis, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(backoffMillis);
+            } catch (RuntimeException e) {
+                // A broken message must not take the worker down with it
+                log.error("Failed to send email", e);
+                return close(transport);
+            }
+        }
+    }
+
+    private void sendWithinLimit(Transport transport, MimeMessage message) throws MessagingException {
+        try {
+            upstreamLimiter.run(Upstream.SMTP, () -> {
+                try {
+                    send(transport, message);
+                } catch (MessagingException e) {
+                    throw new DeliveryException(e);
+                }
+            });
+        } catch (DeliveryException e) {
+            throw e.getCause();
+        } catch (RejectedExecutionException e) {
+            throw new MessagingException("No SMTP permit available", e);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        String username = emptyToNull(mailSender.getUsername());
+        String password = username == null ? null : mailSender.getPassword();
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return transport;
+    }
+
+    private static void send(Transport transport, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    // 4xx replies and connection level errors may succeed later, everything else will not
+    private static boolean isTransient(MessagingException e) {
+        if (e instanceof SMTPSendFailedException smtpFailure) {
+            return smtpFailure.getReturnCode() >= 400 && smtpFailure.getReturnCode() < 500;
+        }
+        return !(e instanceof AuthenticationFailedException) && !(e instanceof SendFailedException);
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection", e);
+            }
+        }
+        return null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // Carries a checked send failure through the limiter's Runnable
+    private static class DeliveryException extends RuntimeException {
+
+        DeliveryException(MessagingException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized MessagingException getCause() {
+            return (MessagingException) super.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.nelani.recipe_search_backend.notifications;
+
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.mapper.RecipeMapper;
+import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * Renders recipe emails once per recipe and template version. Popular recipes are
+ * emailed over and over with identical bodies, so repeated sends skip both the
+ * database lookup and the rendering; only the recipient differs per send.
+ */
+@Component
+public class RecipeEmailRenderer {
+
+    /**
+     * Subject and HTML body of a recipe email, shared by every recipient.
+     */
+    public record RenderedEmail(String subject, String html) implements Serializable {
+    }
+
+    private final RecipeRepository recipeRepository;
+
+    public RecipeEmailRenderer(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Cacheable(value = "email-bodies",
+            key = "#publicId + '_v' + T(com.nelani.recipe_search_backend.notifications.RecipeEmailTemplate).VERSION")
+    public RenderedEmail render(String publicId) {
+        RecipeDto recipe = recipeRepository.findWithDetailsByPublicId(publicId)
+                .map(RecipeMapper::mapRecipeWithAllDetails)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid recipe Id."));
+
+        return new RenderedEmail("AI Recipe Generator - " + recipe.getName(), RecipeEmailTemplate.render(recipe));
+    }
+
+}
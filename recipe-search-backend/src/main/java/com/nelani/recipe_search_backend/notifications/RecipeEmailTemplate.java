@@ -0,0 +1,115 @@
+package com.nelani.recipe_search_backend.notifications;
+
+import com.nelani.recipe_search_backend.dto.IngredientDto;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.StepDto;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * HTML body of the recipe email. The template is split once, when the class is
+ * loaded, into the static segments between its placeholders; rendering only appends
+ * those segments and the escaped recipe values. Bump {@link #VERSION} whenever the
+ * markup changes so bodies cached under the old version are no longer used.
+ */
+public final class RecipeEmailTemplate {
+
+    public static final int VERSION = 1;
+
+    private static final String TEMPLATE = """
+    <!DOCTYPE html>
+    <html lang="en">
+      <head>
+        <meta charset="UTF-8" />
+        <meta name="viewport" content="width=device-width, initial-scale=1.0" />
+        <title>AI Recipe Generator</title>
+      </head>
+      <body style="font-family: Arial, sans-serif; color: #333; background: #f9f9f9; margin: 0; padding: 0;">
+        <div style="max-width: 500px; width: 100%; margin: auto; background: #fff">
+          <div style="padding: 1px 20px 0 20px">
+            <h2 style="margin: 20px 0">AI Recipe Generator</h2>
+          </div>
+
+          <div style="padding: 0 20px 40px">
+            <h2 style="color: #2e86c1; margin: 40px 0 20px 0">Hi there,</h2>
+            <p style="line-height: 1.6">
+              Your custom recipe <strong>{{name}}</strong> has been generated by AI!
+            </p>
+
+            <p><strong>Meal Type:</strong> {{mealType}}</p>
+            <p><strong>Cook Time:</strong> {{cookTime}} minutes</p>
+
+            <h3 style="margin-top:30px; color:#2e86c1;">Ingredients:</h3>
+            <ul style="line-height:1.6;">{{ingredients}}</ul>
+
+            <h3 style="margin-top:30px; color:#2e86c1;">Steps:</h3>
+            <ol style="line-height:1.6;">{{steps}}</ol>
+
+            <hr style="margin: 30px 0; border: none; border-top: 1px solid #ccc" />
+
+            <p style="font-size: 13px; color: #666; text-align: center">
+              Need help? Visit our
+              <a href="https://yourwebsite.com/support" style="color: #2e86c1; text-decoration: none">Help Center</a>
+              or reply to this email.
+            </p>
+
+            <p style="font-size: 12px; color: #999; text-align: center; margin-top: 15px;">
+              AI Recipe Generator – Where every dish is unique.
+            </p>
+          </div>
+        </div>
+      </body>
+    </html>
+    """;
+
+    // Static text around the placeholders, in template order: name, mealType, cookTime, ingredients, steps
+    private static final String[] SEGMENTS = TEMPLATE.split("\\{\\{[A-Za-z]+}}", -1);
+
+    private RecipeEmailTemplate() {
+    }
+
+    /**
+     * Renders the email body for a recipe. Every value coming from the recipe is HTML
+     * escaped, generated names and steps may contain markup characters.
+     *
+     * @param recipe The recipe with its ingredients and steps.
+     * @return The complete HTML document.
+     */
+    public static String render(RecipeDto recipe) {
+        StringBuilder html = new StringBuilder(TEMPLATE.length() + 1024);
+        html.append(SEGMENTS[0]).append(escape(recipe.getName()))
+                .append(SEGMENTS[1]).append(escape(recipe.getMealType()))
+                .append(SEGMENTS[2]).append(recipe.getCookTimeMinutes())
+                .append(SEGMENTS[3]);
+        appendIngredients(html, recipe.getIngredients());
+        html.append(SEGMENTS[4]);
+        appendSteps(html, recipe.getSteps());
+        return html.append(SEGMENTS[5]).toString();
+    }
+
+    private static void appendIngredients(StringBuilder html, List<IngredientDto> ingredients) {
+        if (ingredients == null) {
+            return;
+        }
+        for (IngredientDto ingredient : ingredients) {
+            html.append("<li>").append(escape(ingredient.getQuantity()))
+                    .append(' ').append(escape(ingredient.getName())).append("</li>");
+        }
+    }
+
+    private static void appendSteps(StringBuilder html, List<StepDto> steps) {
+        if (steps == null) {
+            return;
+        }
+        for (StepDto step : steps) {
+            html.append("<li>").append(escape(step.getDescription()))
+                    .append(" (Estimated: ").append(step.getEstimatedMinutes()).append(" min)</li>");
+        }
+    }
+
+    private static String escape(Object value) {
+        return HtmlUtils.htmlEscape(String.valueOf(value), "UTF-8");
+    }
+
+}
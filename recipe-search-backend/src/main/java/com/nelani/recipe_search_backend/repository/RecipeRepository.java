@@ -1,38 +1,100 @@
 package com.nelani.recipe_search_backend.repository;
 
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeIngredientRow;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
 import com.nelani.recipe_search_backend.model.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+// Declared queries get no transaction by default; read-only ones may be served by the read replica
 @Repository
+@Transactional(readOnly = true)
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
     Optional<Recipe> findByPublicId(String publicId);
 
+    @Transactional(readOnly = true)
+    default Optional<Recipe> findWithDetailsByPublicId(String publicId) {
+        return findAllWithDetailsByPublicIdIn(List.of(publicId)).stream().findFirst();
+    }
+
+    /**
+     * Loads recipes with both their ingredients and steps in exactly two queries,
+     * however many public ids are requested. Both collections are bags, so they cannot
+     * be join fetched together; the second query fetches the steps into the same
+     * managed instances loaded by the first.
+     */
+    @Transactional(readOnly = true)
+    default List<Recipe> findAllWithDetailsByPublicIdIn(Collection<String> publicIds) {
+        if (publicIds.isEmpty()) {
+            return List.of();
+        }
+        List<Recipe> recipes = findAllWithIngredientsByPublicIdIn(publicIds);
+        if (!recipes.isEmpty()) {
+            fetchSteps(recipes);
+        }
+        return recipes;
+    }
+
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients WHERE r.publicId IN :publicIds")
+    List<Recipe> findAllWithIngredientsByPublicIdIn(@Param("publicIds") Collection<String> publicIds);
+
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.steps WHERE r IN :recipes")
+    List<Recipe> fetchSteps(@Param("recipes") Collection<Recipe> recipes);
+
     boolean existsByName(String name);
 
-    @Query("SELECT DISTINCT r FROM Recipe r " +
-            "LEFT JOIN FETCH r.ingredients i " +
-            "WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "OR LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Recipe> searchRecipes(@Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query("SELECT r.name FROM Recipe r WHERE r.name IN :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
 
-    @Query("""
-    SELECT r FROM Recipe r
+    @Query("SELECT r.publicId FROM Recipe r WHERE r.publicId IN :publicIds")
+    Set<String> findExistingPublicIds(@Param("publicIds") Collection<String> publicIds);
+
+    // List views select only the summary columns straight into DTOs: no entities, no persistence context tracking
+    String SUMMARY_DTO = "new com.nelani.recipe_search_backend.dto.RecipeDto("
+            + "r.publicId, r.name, r.imageUrl, r.mealType, r.cookTimeMinutes)";
+    String SUMMARY_ROW = "new com.nelani.recipe_search_backend.dto.RecipeSummaryRow("
+            + "r.id, r.createdAt, r.publicId, r.name, r.imageUrl, r.mealType, r.cookTimeMinutes)";
+
+    /**
+     * Searches recipe and ingredient names. Ingredients are only matched in the
+     * subquery, never fetched, so the page limit is applied in SQL.
+     */
+    @Query("SELECT " + SUMMARY_DTO + """
+     FROM Recipe r
+    WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
+       OR EXISTS (
+            SELECT 1 FROM Ingredient i
+            WHERE i.recipe = r AND LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
+       )
+    ORDER BY r.id DESC
+    """)
+    List<RecipeDto> searchRecipes(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query("SELECT " + SUMMARY_ROW + " FROM Recipe r WHERE r.id IN :ids")
+    List<RecipeSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT " + SUMMARY_DTO + """
+     FROM Recipe r
     WHERE (:startTime IS NULL OR :endTime IS NULL OR r.cookTimeMinutes BETWEEN :startTime AND :endTime)
       AND (:mealType IS NULL OR r.mealType = :mealType)
       AND (:startDate IS NULL OR r.createdAt >= :startDate)
       AND (:endDate IS NULL OR r.createdAt < :endDate)
     ORDER BY r.createdAt DESC
     """)
-    List<Recipe> getRecipesByTimeAndMealType(
+    List<RecipeDto> getRecipesByTimeAndMealType(
             @Param("startTime") Integer startTime,
             @Param("endTime") Integer endTime,
             @Param("mealType") MealType mealType,
@@ -41,4 +103,87 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
             Pageable pageable
     );
 
+    // Every feed bound is required, so the (meal_type, created_at, id) and (created_at, id) indexes can seek
+    // a plain range. A feed over all meal types has its own queries instead of an optional predicate
+    @Query("SELECT " + SUMMARY_ROW + """
+     FROM Recipe r
+    WHERE r.cookTimeMinutes BETWEEN :startTime AND :endTime
+      AND r.createdAt >= :startDate AND r.createdAt < :endDate
+    ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<RecipeSummaryRow> getRecipeFeed(
+            @Param("startTime") int startTime,
+            @Param("endTime") int endTime,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Limit limit
+    );
+
+    @Query("SELECT " + SUMMARY_ROW + """
+     FROM Recipe r
+    WHERE r.mealType = :mealType
+      AND r.cookTimeMinutes BETWEEN :startTime AND :endTime
+      AND r.createdAt >= :startDate AND r.createdAt < :endDate
+    ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<RecipeSummaryRow> getRecipeFeedByMealType(
+            @Param("startTime") int startTime,
+            @Param("endTime") int endTime,
+            @Param("mealType") MealType mealType,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Limit limit
+    );
+
+    // Seeks past the (createdAt, id) of the last row on the previous page instead of using OFFSET
+    @Query("SELECT " + SUMMARY_ROW + """
+     FROM Recipe r
+    WHERE r.cookTimeMinutes BETWEEN :startTime AND :endTime
+      AND r.createdAt >= :startDate AND r.createdAt < :endDate
+      AND (r.createdAt < :cursorCreatedAt OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId))
+    ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<RecipeSummaryRow> getRecipeFeedAfter(
+            @Param("startTime") int startTime,
+            @Param("endTime") int endTime,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    @Query("SELECT " + SUMMARY_ROW + """
+     FROM Recipe r
+    WHERE r.mealType = :mealType
+      AND r.cookTimeMinutes BETWEEN :startTime AND :endTime
+      AND r.createdAt >= :startDate AND r.createdAt < :endDate
+      AND (r.createdAt < :cursorCreatedAt OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId))
+    ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<RecipeSummaryRow> getRecipeFeedByMealTypeAfter(
+            @Param("startTime") int startTime,
+            @Param("endTime") int endTime,
+            @Param("mealType") MealType mealType,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.publicId = :publicId")
+    Optional<Long> findIdByPublicId(@Param("publicId") String publicId);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+    SELECT new com.nelani.recipe_search_backend.dto.RecipeIngredientRow(r.id, r.name, r.mealType, r.cookTimeMinutes, i.name)
+    FROM Recipe r
+    LEFT JOIN r.ingredients i
+    WHERE r.id BETWEEN :firstId AND :lastId
+    """)
+    List<RecipeIngredientRow> findIngredientRows(@Param("firstId") Long firstId, @Param("lastId") Long lastId);
+
 }
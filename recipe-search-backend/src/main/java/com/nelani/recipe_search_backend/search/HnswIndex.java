@@ -0,0 +1,296 @@
+package com.nelani.recipe_search_backend.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest neighbour search
+ * over unit length vectors, ranked by cosine similarity. Every node is linked to its
+ * closest neighbours on layer 0 and, with exponentially decreasing probability, on
+ * the sparser layers above; a search descends greedily from the top layer and then
+ * explores a bounded beam on layer 0, visiting a small fraction of the nodes.
+ */
+public class HnswIndex {
+
+    /**
+     * A neighbour of the query vector, with its cosine similarity.
+     */
+    public record Neighbour(long id, double similarity) {
+    }
+
+    private final int maxConnections;
+    private final int maxLayer0Connections;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    // Guarded by lock: nodes are only appended, their links are replaced copy on write
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> nodesById = new HashMap<>();
+    private int entryPoint = -1;
+    private int topLayer = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param maxConnections Links per node on the upper layers, twice as many on layer 0.
+     * @param efConstruction Beam width while inserting, higher builds a better graph more slowly.
+     * @param seed           Seed for the random layer assignment.
+     */
+    public HnswIndex(int maxConnections, int efConstruction, long seed) {
+        this.maxConnections = maxConnections;
+        this.maxLayer0Connections = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Adds a vector to the graph. Ids already present are ignored.
+     *
+     * @param id     The id returned by searches.
+     * @param vector A unit length vector, every vector must have the same dimension.
+     */
+    public void add(long id, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (nodesById.containsKey(id)) {
+                return;
+            }
+
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            int index = nodes.size();
+            Node node = new Node(id, vector, level);
+            nodes.add(node);
+            nodesById.put(id, index);
+
+            if (entryPoint < 0) {
+                entryPoint = index;
+                topLayer = level;
+                return;
+            }
+
+            // Descend to the node's top layer, then link it on every layer down to 0
+            int closest = entryPoint;
+            for (int layer = topLayer; layer > level; layer--) {
+                closest = greedyClosest(vector, closest, layer);
+            }
+            List<Candidate> entryPoints = List.of(new Candidate(closest, distance(vector, nodes.get(closest).vector)));
+            for (int layer = Math.min(level, topLayer); layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(vector, entryPoints, efConstruction, layer);
+                int limit = layer == 0 ? maxLayer0Connections : maxConnections;
+                node.links[layer] = closestIndexes(candidates, maxConnections);
+                for (int neighbour : node.links[layer]) {
+                    link(neighbour, index, layer, limit);
+                }
+                entryPoints = candidates;
+            }
+
+            if (level > topLayer) {
+                entryPoint = index;
+                topLayer = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the approximate nearest neighbours of a vector.
+     *
+     * @param vector   A unit length query vector.
+     * @param k        The number of neighbours to return.
+     * @param efSearch Beam width on layer 0, raised to {@code k} if smaller; higher improves recall.
+     * @return Up to {@code k} neighbours, most similar first.
+     */
+    public List<Neighbour> search(float[] vector, int k, int efSearch) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+
+            int closest = entryPoint;
+            for (int layer = topLayer; layer > 0; layer--) {
+                closest = greedyClosest(vector, closest, layer);
+            }
+            List<Candidate> candidates = searchLayer(vector,
+                    List.of(new Candidate(closest, distance(vector, nodes.get(closest).vector))),
+                    Math.max(efSearch, k), 0);
+
+            return candidates.stream()
+                    .limit(k)
+                    .map(candidate -> new Neighbour(nodes.get(candidate.node).id, 1 - candidate.distance))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The stored vector of an id, or {@code null} if it has not been added.
+     */
+    public float[] vector(long id) {
+        lock.readLock().lock();
+        try {
+            Integer index = nodesById.get(id);
+            return index == null ? null : nodes.get(index).vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            nodesById.clear();
+            entryPoint = -1;
+            topLayer = -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves to whichever neighbour is closer until none is, used on the sparse upper layers
+    private int greedyClosest(float[] vector, int start, int layer) {
+        int current = start;
+        double currentDistance = distance(vector, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : nodes.get(current).links[layer]) {
+                double neighbourDistance = distance(vector, nodes.get(neighbour).vector);
+                if (neighbourDistance < currentDistance) {
+                    current = neighbour;
+                    currentDistance = neighbourDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on one layer.
+     *
+     * @return The {@code ef} closest nodes found, closest first.
+     */
+    private List<Candidate> searchLayer(float[] vector, List<Candidate> entryPoints, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> found = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distance).reversed());
+        for (Candidate entry : entryPoints) {
+            visited.set(entry.node);
+            toVisit.add(entry);
+            found.add(entry);
+        }
+        while (found.size() > ef) {
+            found.poll();
+        }
+
+        while (!toVisit.isEmpty()) {
+            Candidate current = toVisit.poll();
+            if (found.size() >= ef && current.distance > found.peek().distance) {
+                break;
+            }
+            for (int neighbour : nodes.get(current.node).links[layer]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double neighbourDistance = distance(vector, nodes.get(neighbour).vector);
+                if (found.size() < ef || neighbourDistance < found.peek().distance) {
+                    Candidate candidate = new Candidate(neighbour, neighbourDistance);
+                    toVisit.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> closestFirst = new ArrayList<>(found);
+        closestFirst.sort(Comparator.comparingDouble(Candidate::distance));
+        return closestFirst;
+    }
+
+    // Adds a back link, keeping only the closest neighbours once the node is full
+    private void link(int from, int to, int layer, int limit) {
+        Node node = nodes.get(from);
+        int[] links = node.links[layer];
+        int[] extended = new int[links.length + 1];
+        System.arraycopy(links, 0, extended, 0, links.length);
+        extended[links.length] = to;
+        if (extended.length <= limit) {
+            node.links[layer] = extended;
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(extended.length);
+        for (int neighbour : extended) {
+            candidates.add(new Candidate(neighbour, distance(node.vector, nodes.get(neighbour).vector)));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        node.links[layer] = closestIndexes(candidates, limit);
+    }
+
+    private static int[] closestIndexes(List<Candidate> closestFirst, int limit) {
+        return closestFirst.stream()
+                .limit(limit)
+                .mapToInt(Candidate::node)
+                .toArray();
+    }
+
+    // Cosine distance, the vectors are unit length
+    private static double distance(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+
+    private record Candidate(int node, double distance) {
+    }
+
+    private static final class Node {
+
+        private final long id;
+        private final float[] vector;
+        private final int[][] links;
+
+        Node(long id, float[] vector, int level) {
+            this.id = id;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[0];
+            }
+        }
+    }
+
+}
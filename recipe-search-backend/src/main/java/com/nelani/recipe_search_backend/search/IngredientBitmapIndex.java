@@ -0,0 +1,415 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers "what can I cook with" queries from compressed bitmaps instead of one
+ * ingredient join per term. Ingredient names are normalized into an
+ * {@link IngredientDictionary}; each dictionary entry, meal type and cook time
+ * keeps a Roaring bitmap of the recipe ids using it, so AND/OR/AND-NOT filters are
+ * bitmap intersections, unions and differences.
+ *
+ * <p>Pantry queries rank recipes by how many of their own ingredients are missing.
+ * The pantry's bitmaps are counted into one byte per recipe id in a single pass, a
+ * recipe is missing its distinct ingredient count minus that; the counts are then
+ * scanned from the highest id down, stopping as soon as recipes missing nothing fill
+ * the page. Both arrays are indexed by recipe id, so they grow with the highest id
+ * rather than the number of recipes: one byte per id, including the gaps the pooled
+ * id sequences leave when an instance restarts with part of its block unused.
+ *
+ * <p>"Newest" below means highest id, not latest {@code createdAt}. Ids are handed out
+ * in blocks per instance, so recipes saved around the same time by different
+ * instances can be out of order, and imported recipes get new ids but keep their
+ * original {@code createdAt}.
+ */
+@Component
+public class IngredientBitmapIndex {
+
+    /**
+     * A matching recipe and, for pantry queries, how many of its ingredients are missing.
+     */
+    public record Match(long recipeId, Integer missingIngredients) {
+    }
+
+    private static final int MAX_INGREDIENTS = 255;
+    private static final int MIN_CLOSE = 256;
+    // Close pantry matches are sorted while there is at most one per this many recipe ids, else scanned
+    private static final int MAX_CLOSE_FRACTION = 64;
+
+    private final IngredientDictionary dictionary = new IngredientDictionary();
+    // Indexed by dictionary id
+    private final List<RoaringBitmap> recipesByIngredient = new ArrayList<>();
+    private final Map<MealType, RoaringBitmap> recipesByMealType = new EnumMap<>(MealType.class);
+    private final NavigableMap<Integer, RoaringBitmap> recipesByCookTime = new TreeMap<>();
+    private final RoaringBitmap allRecipes = new RoaringBitmap();
+    // Indexed by recipe id, the number of distinct ingredients capped at MAX_INGREDIENTS
+    private byte[] ingredientCounts = new byte[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Recipe recipe) {
+        List<String> ingredientNames = recipe.getIngredients() == null
+                ? Collections.emptyList()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        index(recipe.getId(), ingredientNames, recipe.getMealType(), recipe.getCookTimeMinutes());
+    }
+
+    public void indexAll(Collection<Recipe> recipes) {
+        recipes.forEach(this::index);
+    }
+
+    /**
+     * Adds a recipe to the index. Saved recipes never change, so a recipe that is
+     * already indexed is left as it is.
+     *
+     * @param recipeId        The database id, bitmaps hold ids up to {@link Integer#MAX_VALUE}.
+     * @param ingredientNames The names of the recipe's ingredients.
+     * @param mealType        The meal type, may be {@code null}.
+     * @param cookTimeMinutes The cook time, may be {@code null}.
+     */
+    public void index(Long recipeId, Collection<String> ingredientNames, MealType mealType, Integer cookTimeMinutes) {
+        if (recipeId == null) {
+            return;
+        }
+        int id = Math.toIntExact(recipeId);
+
+        lock.writeLock().lock();
+        try {
+            if (allRecipes.contains(id)) {
+                return;
+            }
+            allRecipes.add(id);
+
+            RoaringBitmap ingredientIds = new RoaringBitmap();
+            for (String ingredientName : ingredientNames) {
+                int ingredientId = dictionary.idOf(ingredientName);
+                if (ingredientId >= 0) {
+                    ingredientIds.add(ingredientId);
+                }
+            }
+            ingredientIds.forEach((int ingredientId) -> {
+                while (recipesByIngredient.size() <= ingredientId) {
+                    recipesByIngredient.add(new RoaringBitmap());
+                }
+                recipesByIngredient.get(ingredientId).add(id);
+            });
+
+            if (id >= ingredientCounts.length) {
+                // Doubling keeps appends of increasing ids amortized constant
+                ingredientCounts = Arrays.copyOf(ingredientCounts,
+                        (int) Math.min(Math.max(id + 1L, ingredientCounts.length * 2L), Integer.MAX_VALUE));
+            }
+            ingredientCounts[id] = (byte) Math.min(ingredientIds.getCardinality(), MAX_INGREDIENTS);
+
+            if (mealType != null) {
+                recipesByMealType.computeIfAbsent(mealType, key -> new RoaringBitmap()).add(id);
+            }
+            if (cookTimeMinutes != null) {
+                recipesByCookTime.computeIfAbsent(cookTimeMinutes, key -> new RoaringBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes matching a query. Pantry queries are ordered by missing
+     * ingredients, fewest first; ties, and every other query, highest recipe id first.
+     *
+     * @param query The ingredient lists and filters.
+     * @param page  Zero based page number.
+     * @param size  Page size.
+     * @return The recipes on the requested page.
+     */
+    public List<Match> search(CookWithQuery query, int page, int size) {
+        if (size <= 0 || page < 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = filter(query);
+            Page results = new Page((long) page * size, size);
+            if (query.getPantry().isEmpty()) {
+                results.collect(candidates, null);
+            } else {
+                collectByMissing(query.getPantry(), query.getMaxMissing(), candidates, results);
+            }
+            return results.matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return allRecipes.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ingredientCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            recipesByIngredient.clear();
+            recipesByMealType.clear();
+            recipesByCookTime.clear();
+            allRecipes.clear();
+            ingredientCounts = new byte[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies every filter of the query; the result may be a shared bitmap and must not be modified
+    private RoaringBitmap filter(CookWithQuery query) {
+        RoaringBitmap candidates = allRecipes;
+        for (String ingredient : query.getAllOf()) {
+            candidates = RoaringBitmap.and(candidates, recipesUsing(ingredient));
+        }
+        if (!query.getAnyOf().isEmpty()) {
+            candidates = RoaringBitmap.and(candidates, recipesUsingAny(query.getAnyOf()));
+        }
+        if (!query.getNoneOf().isEmpty()) {
+            candidates = RoaringBitmap.andNot(candidates, recipesUsingAny(query.getNoneOf()));
+        }
+        if (query.getMealType() != null) {
+            candidates = RoaringBitmap.and(candidates,
+                    recipesByMealType.getOrDefault(query.getMealType(), new RoaringBitmap()));
+        }
+        if (query.getStartTime() != null || query.getEndTime() != null) {
+            int from = query.getStartTime() == null ? Integer.MIN_VALUE : query.getStartTime();
+            int to = query.getEndTime() == null ? Integer.MAX_VALUE : query.getEndTime();
+            candidates = from > to ? new RoaringBitmap() : RoaringBitmap.and(candidates,
+                    FastAggregation.or(recipesByCookTime.subMap(from, true, to, true).values().iterator()));
+        }
+        return candidates;
+    }
+
+    private RoaringBitmap recipesUsing(String ingredient) {
+        return recipesUsingIngredients(dictionary.matching(ingredient));
+    }
+
+    private RoaringBitmap recipesUsingAny(List<String> ingredients) {
+        RoaringBitmap ingredientIds = new RoaringBitmap();
+        ingredients.forEach(ingredient -> ingredientIds.or(dictionary.matching(ingredient)));
+        return recipesUsingIngredients(ingredientIds);
+    }
+
+    private RoaringBitmap recipesUsingIngredients(RoaringBitmap ingredientIds) {
+        IntIterator ids = ingredientIds.getIntIterator();
+        return FastAggregation.or(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public RoaringBitmap next() {
+                return recipesByIngredient.get(ids.next());
+            }
+        });
+    }
+
+    // Ranks the candidates using any pantry ingredient, fewest missing ingredients first
+    private void collectByMissing(List<String> pantry, int maxMissing, RoaringBitmap candidates, Page results) {
+        RoaringBitmap pantryIds = new RoaringBitmap();
+        pantry.forEach(ingredient -> pantryIds.or(dictionary.matching(ingredient)));
+        if (pantryIds.isEmpty() || candidates.isEmpty()) {
+            return;
+        }
+
+        // One pass over the pantry's bitmaps counts the pantry ingredients of every candidate
+        PantryCounter counter = new PantryCounter(candidates.last() + 1, ingredientCounts, maxMissing);
+        for (IntIterator ids = pantryIds.getIntIterator(); ids.hasNext(); ) {
+            RoaringBitmap uses = recipesByIngredient.get(ids.next());
+            (candidates == allRecipes ? uses : RoaringBitmap.and(uses, candidates)).forEach(counter);
+        }
+        byte[] covered = counter.covered;
+
+        MissingGroups groups = new MissingGroups(Math.min(maxMissing, MAX_INGREDIENTS) + 1, results.limit());
+        if (!counter.tooManyClose()) {
+            IntIterator newestFirst = RoaringBitmap.bitmapOfUnordered(counter.close()).getReverseIntIterator();
+            while (newestFirst.hasNext()) {
+                int id = newestFirst.next();
+                if (groups.add(id, (ingredientCounts[id] & 0xFF) - (covered[id] & 0xFF))) {
+                    break;
+                }
+            }
+        } else {
+            // Too many close recipes to sort, scan every id instead
+            for (int id = covered.length - 1; id >= 0; id--) {
+                int used = covered[id] & 0xFF;
+                if (used > 0 && groups.add(id, (ingredientCounts[id] & 0xFF) - used)) {
+                    break;
+                }
+            }
+        }
+        groups.collect(results);
+    }
+
+    /**
+     * Counts how many pantry ingredients each recipe uses, one pantry bitmap at a time.
+     * A recipe is also remembered as close once, when its count first reaches what it
+     * needs to miss at most {@code maxMissing} ingredients, so the usual small result
+     * sets are found without scanning every recipe id.
+     */
+    private static final class PantryCounter implements IntConsumer {
+
+        private final byte[] covered;
+        private final byte[] ingredientCounts;
+        private final int maxMissing;
+        private final int maxClose;
+        private int[] close = new int[MIN_CLOSE];
+        private int closeCount;
+
+        PantryCounter(int recipeIds, byte[] ingredientCounts, int maxMissing) {
+            this.covered = new byte[recipeIds];
+            this.ingredientCounts = ingredientCounts;
+            this.maxMissing = maxMissing;
+            this.maxClose = Math.max(recipeIds / MAX_CLOSE_FRACTION, MIN_CLOSE);
+        }
+
+        @Override
+        public void accept(int recipeId) {
+            int used = ++covered[recipeId] & 0xFF;
+            if (used == Math.max((ingredientCounts[recipeId] & 0xFF) - maxMissing, 1) && closeCount <= maxClose) {
+                if (closeCount == close.length) {
+                    close = Arrays.copyOf(close, closeCount * 2);
+                }
+                close[closeCount++] = recipeId;
+            }
+        }
+
+        boolean tooManyClose() {
+            return closeCount > maxClose;
+        }
+
+        int[] close() {
+            return Arrays.copyOf(close, closeCount);
+        }
+    }
+
+    // Pantry matches grouped by missing ingredients, fed newest first
+    private static final class MissingGroups {
+
+        private final List<List<Integer>> newestFirst;
+        private final long[] sizes;
+        private final long limit;
+
+        MissingGroups(int groups, long limit) {
+            this.newestFirst = new ArrayList<>(groups);
+            for (int missing = 0; missing < groups; missing++) {
+                newestFirst.add(new ArrayList<>());
+            }
+            this.sizes = new long[groups];
+            this.limit = limit;
+        }
+
+        /**
+         * @return {@code true} once recipes missing nothing fill the page, since nothing
+         *         older can come before them.
+         */
+        boolean add(int recipeId, int missing) {
+            if (missing < 0 || missing >= sizes.length) {
+                return false;
+            }
+            // Each group only needs as many recipes as the page reaches
+            if (sizes[missing]++ < limit) {
+                newestFirst.get(missing).add(recipeId);
+            }
+            return sizes[0] >= limit;
+        }
+
+        void collect(Page results) {
+            for (int missing = 0; missing < sizes.length && !results.isFull(); missing++) {
+                results.collect(newestFirst.get(missing), sizes[missing], missing);
+            }
+        }
+    }
+
+    // Collects one page across several result groups, newest recipe first within a group
+    private static final class Page {
+
+        private final List<Match> matches = new ArrayList<>();
+        private final int size;
+        private final long limit;
+        private long toSkip;
+
+        Page(long offset, int size) {
+            this.toSkip = offset;
+            this.size = size;
+            this.limit = offset + size;
+        }
+
+        void collect(RoaringBitmap recipes, Integer missing) {
+            long cardinality = recipes.getLongCardinality();
+            if (toSkip >= cardinality) {
+                toSkip -= cardinality;
+                return;
+            }
+            IntIterator ids = recipes.getReverseIntIterator();
+            for (; toSkip > 0; toSkip--) {
+                ids.next();
+            }
+            while (ids.hasNext() && !isFull()) {
+                matches.add(new Match(ids.next(), missing));
+            }
+        }
+
+        // One group of groupSize recipes, of which only the newest recipeIds are needed
+        void collect(List<Integer> recipeIds, long groupSize, Integer missing) {
+            if (toSkip >= groupSize) {
+                toSkip -= groupSize;
+                return;
+            }
+            for (int i = (int) toSkip; i < recipeIds.size() && !isFull(); i++) {
+                matches.add(new Match(recipeIds.get(i), missing));
+            }
+            toSkip = 0;
+        }
+
+        // How many recipes of one group can be on or before the page
+        long limit() {
+            return limit;
+        }
+
+        boolean isFull() {
+            return matches.size() >= size;
+        }
+    }
+
+}
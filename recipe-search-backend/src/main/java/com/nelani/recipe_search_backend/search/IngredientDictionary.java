@@ -0,0 +1,115 @@
+package com.nelani.recipe_search_backend.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps free text ingredient names to dense ids. Names are normalized first, so
+ * "2 Large Tomatoes, diced" and "tomato" share the id of "tomato"; each word of a
+ * normalized name also points to the ids containing it, which lets a pantry entry
+ * like "chicken" match "chicken thigh" and "chicken stock". Not thread safe, the
+ * owning {@link IngredientBitmapIndex} guards it.
+ */
+class IngredientDictionary {
+
+    // Preparation and size words that do not change what the ingredient is
+    private static final Set<String> IGNORED_WORDS = Set.of("fresh", "freshly", "chopped", "diced", "minced",
+            "sliced", "grated", "crushed", "large", "small", "medium", "optional", "to", "taste", "of", "and", "or",
+            "for", "a", "the");
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, RoaringBitmap> idsByWord = new HashMap<>();
+
+    /**
+     * @return The id of the ingredient, added to the dictionary if new, or -1 if the
+     *         name has no meaningful words.
+     */
+    int idOf(String ingredientName) {
+        String normalized = normalize(ingredientName);
+        if (normalized.isEmpty()) {
+            return -1;
+        }
+        Integer id = ids.get(normalized);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = names.size();
+        ids.put(normalized, newId);
+        names.add(normalized);
+        for (String word : normalized.split(" ")) {
+            idsByWord.computeIfAbsent(word, key -> new RoaringBitmap()).add(newId);
+        }
+        return newId;
+    }
+
+    /**
+     * Resolves a pantry entry to every known ingredient containing all of its words.
+     *
+     * @return The matching ingredient ids, empty if none match.
+     */
+    RoaringBitmap matching(String pantryEntry) {
+        String normalized = normalize(pantryEntry);
+        if (normalized.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        RoaringBitmap matches = null;
+        for (String word : normalized.split(" ")) {
+            RoaringBitmap withWord = idsByWord.get(word);
+            if (withWord == null) {
+                return new RoaringBitmap();
+            }
+            matches = matches == null ? withWord.clone() : RoaringBitmap.and(matches, withWord);
+        }
+        return matches;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    void clear() {
+        ids.clear();
+        names.clear();
+        idsByWord.clear();
+    }
+
+    static String normalize(String ingredientName) {
+        StringBuilder normalized = new StringBuilder();
+        for (String token : RecipeSearchIndex.tokenize(ingredientName)) {
+            if (IGNORED_WORDS.contains(token) || !Character.isLetter(token.charAt(0))) {
+                continue;
+            }
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(singular(token));
+        }
+        return normalized.toString();
+    }
+
+    // Good enough for ingredient plurals: berries, tomatoes, peaches, onions
+    private static String singular(String word) {
+        if (word.length() <= 3 || word.endsWith("ss")) {
+            return word;
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.model.MealType;
+
+import java.util.Collection;
+
+/**
+ * Turns recipe text into fixed size vectors without any model: every word and every
+ * character trigram of a word is hashed into one of {@code dimensions} buckets (the
+ * hashing trick) with a random sign, weighted by the field it came from, and the
+ * result is scaled to unit length. Shared words make recipes similar; shared trigrams
+ * also match spelling variants and related forms ("chickpea" and "chickpeas",
+ * "spicy" and "spiced").
+ */
+public class RecipeEmbedder {
+
+    private static final float NAME_WEIGHT = 2f;
+    private static final float INGREDIENT_WEIGHT = 1f;
+    private static final float MEAL_TYPE_WEIGHT = 1f;
+    private static final float TRIGRAM_WEIGHT = 0.35f;
+
+    private final int dimensions;
+
+    public RecipeEmbedder(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * @return The unit length vector of a recipe, or {@code null} if it has no indexable text.
+     */
+    public float[] embed(String name, Collection<String> ingredientNames, MealType mealType) {
+        float[] vector = new float[dimensions];
+        addText(vector, name, NAME_WEIGHT);
+        if (ingredientNames != null) {
+            ingredientNames.forEach(ingredient -> addText(vector, ingredient, INGREDIENT_WEIGHT));
+        }
+        if (mealType != null) {
+            addFeature(vector, "meal:" + mealType.name(), MEAL_TYPE_WEIGHT);
+        }
+        return normalize(vector);
+    }
+
+    /**
+     * Embeds free text such as "spicy chicken stew" into the same space as recipes.
+     *
+     * @return The unit length vector, or {@code null} if the text has no words.
+     */
+    public float[] embedQuery(String query) {
+        float[] vector = new float[dimensions];
+        addText(vector, query, NAME_WEIGHT);
+        return normalize(vector);
+    }
+
+    private void addText(float[] vector, String text, float weight) {
+        for (String token : RecipeSearchIndex.tokenize(text)) {
+            addFeature(vector, token, weight);
+
+            // Boundary markers so prefixes and suffixes get their own trigrams
+            String padded = "<" + token + ">";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                addFeature(vector, padded.substring(i, i + 3), weight * TRIGRAM_WEIGHT);
+            }
+        }
+    }
+
+    private void addFeature(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        // Random signs keep colliding features from adding up in expectation
+        vector[Math.floorMod(hash, dimensions)] += (hash & 0x80000000) == 0 ? weight : -weight;
+    }
+
+    // Murmur3 finalizer, spreads String.hashCode over all bits
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over recipe names and ingredient names, ranked with BM25.
+ * Query tokens match indexed terms exactly or as a prefix ("chick" finds "chicken"),
+ * prefix matches scoring lower than exact ones. Name tokens weigh more than
+ * ingredient tokens so "chicken curry" ranks above a cake that uses chicken stock.
+ */
+@Component
+public class RecipeSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+    private static final int INGREDIENT_WEIGHT = 1;
+    private static final double PREFIX_BOOST = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // term -> (recipe id -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalDocumentLength;
+    private volatile boolean ready;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Recipe recipe) {
+        List<String> ingredientNames = recipe.getIngredients() == null
+                ? Collections.emptyList()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        index(recipe.getId(), recipe.getName(), ingredientNames);
+    }
+
+    public void indexAll(Collection<Recipe> recipes) {
+        recipes.forEach(this::index);
+    }
+
+    /**
+     * Adds (or replaces) a recipe in the index.
+     *
+     * @param recipeId        The database id of the recipe.
+     * @param name            The recipe name.
+     * @param ingredientNames The names of the recipe's ingredients.
+     */
+    public void index(Long recipeId, String name, Collection<String> ingredientNames) {
+        if (recipeId == null) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(name).forEach(token -> frequencies.merge(token, NAME_WEIGHT, Integer::sum));
+        ingredientNames.forEach(ingredient -> tokenize(ingredient)
+                .forEach(token -> frequencies.merge(token, INGREDIENT_WEIGHT, Integer::sum)));
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(recipeId);
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(recipeId, frequency));
+            documentLengths.put(recipeId, length);
+            totalDocumentLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentLengths.clear();
+            totalDocumentLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks every recipe matching at least one query token and returns the requested page.
+     *
+     * @param query The raw search word.
+     * @param page  Zero based page number.
+     * @param size  Page size.
+     * @return Recipe ids ordered from most to least relevant.
+     */
+    public List<Long> search(String query, int page, int size) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || size <= 0 || page < 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalDocumentLength / documentCount;
+
+            for (String token : tokens) {
+                // Exact match
+                Map<Long, Integer> exact = postings.get(token);
+                if (exact != null) {
+                    score(exact, 1.0, documentCount, averageLength, scores);
+                }
+
+                // Prefix matches, e.g. "chick" -> "chicken", "chickpea"
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    postings.subMap(token, false, token + Character.MAX_VALUE, false)
+                            .values()
+                            .forEach(posting -> score(posting, PREFIX_BOOST, documentCount, averageLength, scores));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long offset = (long) page * size;
+        if (offset >= scores.size()) {
+            return Collections.emptyList();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        return ranked.stream()
+                .skip(offset)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void score(Map<Long, Integer> posting, double boost, int documentCount, double averageLength,
+            Map<Long, Double> scores) {
+        double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        posting.forEach((recipeId, frequency) -> {
+            int length = documentLengths.getOrDefault(recipeId, 0);
+            double normalization = K1 * (1 - B + B * length / averageLength);
+            double termScore = idf * (frequency * (K1 + 1)) / (frequency + normalization);
+            scores.merge(recipeId, boost * termScore, Double::sum);
+        });
+    }
+
+    private void removeUnlocked(Long recipeId) {
+        Integer length = documentLengths.remove(recipeId);
+        if (length == null) {
+            return;
+        }
+        totalDocumentLength -= length;
+        postings.values().removeIf(posting -> posting.remove(recipeId) != null && posting.isEmpty());
+    }
+
+}
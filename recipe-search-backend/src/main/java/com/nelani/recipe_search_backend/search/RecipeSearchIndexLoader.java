@@ -0,0 +1,103 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.dto.RecipeIngredientRow;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the {@link RecipeSearchIndex}, the {@link RecipeSimilarityIndex} and the
+ * {@link IngredientBitmapIndex} from the database once the application is up. Until
+ * the build finishes the search index reports itself as not ready and searches fall
+ * back to the database query. A {@link RecipeSearchIndexReadyEvent} is published once
+ * the startup build succeeded.
+ */
+@Component
+@Log4j2
+public class RecipeSearchIndexLoader {
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndex searchIndex;
+    private final RecipeSimilarityIndex similarityIndex;
+    private final IngredientBitmapIndex ingredientIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public RecipeSearchIndexLoader(RecipeRepository recipeRepository, RecipeSearchIndex searchIndex,
+            RecipeSimilarityIndex similarityIndex, IngredientBitmapIndex ingredientIndex,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${recipe.search.index.batch-size:1000}") int batchSize) {
+        this.recipeRepository = recipeRepository;
+        this.searchIndex = searchIndex;
+        this.similarityIndex = similarityIndex;
+        this.ingredientIndex = ingredientIndex;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Async("recipeTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to build the recipe search index, searches will use the database", e);
+            return;
+        }
+        eventPublisher.publishEvent(new RecipeSearchIndexReadyEvent(searchIndex.size()));
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+
+        // Walk the catalog in id order, one batch of recipes at a time
+        while (true) {
+            List<Long> ids = recipeRepository.findIdsAfter(afterId, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Long firstId = ids.get(0);
+            Long lastId = ids.get(ids.size() - 1);
+
+            Map<Long, String> names = new LinkedHashMap<>();
+            Map<Long, MealType> mealTypes = new HashMap<>();
+            Map<Long, Integer> cookTimes = new HashMap<>();
+            Map<Long, List<String>> ingredients = new LinkedHashMap<>();
+            for (RecipeIngredientRow row : recipeRepository.findIngredientRows(firstId, lastId)) {
+                names.put(row.getRecipeId(), row.getRecipeName());
+                mealTypes.put(row.getRecipeId(), row.getMealType());
+                cookTimes.put(row.getRecipeId(), row.getCookTimeMinutes());
+                List<String> recipeIngredients = ingredients.computeIfAbsent(row.getRecipeId(), id -> new ArrayList<>());
+                if (row.getIngredientName() != null) {
+                    recipeIngredients.add(row.getIngredientName());
+                }
+            }
+            names.forEach((id, name) -> {
+                searchIndex.index(id, name, ingredients.get(id));
+                similarityIndex.index(id, name, ingredients.get(id), mealTypes.get(id));
+                ingredientIndex.index(id, ingredients.get(id), mealTypes.get(id), cookTimes.get(id));
+            });
+
+            afterId = lastId;
+        }
+
+        searchIndex.markReady();
+        log.info("Indexed {} recipes ({} embedded, {} distinct ingredients) in {} ms", searchIndex.size(),
+                similarityIndex.size(), ingredientIndex.ingredientCount(), System.currentTimeMillis() - start);
+    }
+
+}
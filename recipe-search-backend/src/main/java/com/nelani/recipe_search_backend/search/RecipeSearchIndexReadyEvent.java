@@ -0,0 +1,10 @@
+package com.nelani.recipe_search_backend.search;
+
+/**
+ * Published by the {@link RecipeSearchIndexLoader} once the startup build has finished
+ * and searches are served from the {@link RecipeSearchIndex}.
+ *
+ * @param indexedRecipes The number of recipes in the index.
+ */
+public record RecipeSearchIndexReadyEvent(int indexedRecipes) {
+}
@@ -0,0 +1,102 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.search.HnswIndex.Neighbour;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * "Similar recipes" over the whole catalog. Recipes are embedded locally from their
+ * name, ingredients and meal type by the {@link RecipeEmbedder} and kept in an
+ * in-memory {@link HnswIndex}, so neighbours of a recipe or of free text are found
+ * in well under a millisecond without calling any external model. Filled at startup
+ * by the {@link RecipeSearchIndexLoader} and as generated recipes are saved.
+ */
+@Component
+public class RecipeSimilarityIndex {
+
+    private final RecipeEmbedder embedder;
+    private final HnswIndex index;
+    private final int efSearch;
+
+    public RecipeSimilarityIndex(@Value("${recipe.similarity.dimensions:256}") int dimensions,
+            @Value("${recipe.similarity.max-connections:16}") int maxConnections,
+            @Value("${recipe.similarity.ef-construction:100}") int efConstruction,
+            @Value("${recipe.similarity.ef-search:64}") int efSearch) {
+        this.embedder = new RecipeEmbedder(dimensions);
+        this.index = new HnswIndex(maxConnections, efConstruction, 42);
+        this.efSearch = efSearch;
+    }
+
+    public void index(Recipe recipe) {
+        List<String> ingredientNames = recipe.getIngredients() == null
+                ? Collections.emptyList()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        index(recipe.getId(), recipe.getName(), ingredientNames, recipe.getMealType());
+    }
+
+    public void indexAll(Collection<Recipe> recipes) {
+        recipes.forEach(this::index);
+    }
+
+    /**
+     * Adds a recipe to the index. Saved recipes never change, so a recipe that is
+     * already indexed is left as it is.
+     */
+    public void index(Long recipeId, String name, Collection<String> ingredientNames, MealType mealType) {
+        if (recipeId == null) {
+            return;
+        }
+        float[] vector = embedder.embed(name, ingredientNames, mealType);
+        if (vector != null) {
+            index.add(recipeId, vector);
+        }
+    }
+
+    /**
+     * Finds the recipes closest to free text.
+     *
+     * @param query The text, e.g. "spicy chicken stew".
+     * @param k     The number of recipes to return.
+     * @return Recipe ids, most similar first.
+     */
+    public List<Long> search(String query, int k) {
+        float[] vector = embedder.embedQuery(query);
+        if (vector == null) {
+            return Collections.emptyList();
+        }
+        return index.search(vector, k, efSearch).stream()
+                .map(Neighbour::id)
+                .toList();
+    }
+
+    /**
+     * Finds the recipes closest to an indexed recipe, excluding the recipe itself.
+     *
+     * @param recipeId The database id of the recipe.
+     * @param k        The number of recipes to return.
+     * @return Recipe ids, most similar first; empty if the recipe is not indexed.
+     */
+    public List<Long> similarTo(Long recipeId, int k) {
+        float[] vector = index.vector(recipeId);
+        if (vector == null) {
+            return Collections.emptyList();
+        }
+        return index.search(vector, k + 1, efSearch).stream()
+                .map(Neighbour::id)
+                .filter(id -> !id.equals(recipeId))
+                .limit(k)
+                .toList();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.nelani.recipe_search_backend.service;
 
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeFeedPageDto;
 import com.nelani.recipe_search_backend.model.DateFilter;
 import com.nelani.recipe_search_backend.model.MealType;
 
@@ -9,6 +11,11 @@ import java.util.List;
 public interface RecipeService {
     RecipeDto getRecipe (String publicId);
     List<RecipeDto> getRecipes (String searchWord, int page, int size);
+    List<RecipeDto> searchRecipes(String searchWord, int page, int size);
     List<RecipeDto> getRecipesByTimeAndMealType(int startTime, int endTime, MealType mealType, DateFilter dateFilter, int page, int size);
+    RecipeFeedPageDto getRecipeFeed(int startTime, int endTime, MealType mealType, DateFilter dateFilter, String cursor, int size);
+    List<RecipeDto> getSimilarRecipes(String publicId, int size);
+    List<RecipeDto> findSimilarRecipes(String query, int size);
+    List<RecipeDto> cookWith(CookWithQuery query, int page, int size);
     void emailRecipe(String email, String publicId);
 }
@@ -0,0 +1,86 @@
+package com.nelani.recipe_search_backend.service.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nelani.recipe_search_backend.util.SearchTermUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the AI generations that are currently running so that concurrent
+ * searches for the same term share a single Hugging Face call instead of each
+ * starting their own. Once a generation succeeds the term is put on cooldown and
+ * further requests are ignored until it expires.
+ */
+@Component
+@Log4j2
+public class GenerationRegistry {
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> recentlyGenerated;
+
+    public GenerationRegistry(@Value("${recipe.generation.cooldown:PT10M}") Duration cooldown) {
+        this.recentlyGenerated = Caffeine.newBuilder()
+                .expireAfterWrite(cooldown)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * Starts a generation for the given search word unless one is already running
+     * or the term is still cooling down.
+     *
+     * @param searchWord The raw search word, normalized before lookup.
+     * @param generation Starts the generation and returns its completion future.
+     * @return The future of the running generation, shared by all attached callers.
+     */
+    public CompletableFuture<Void> run(String searchWord, Supplier<CompletableFuture<Void>> generation) {
+        String key = SearchTermUtil.normalize(searchWord);
+
+        // Skip terms that were generated recently
+        if (recentlyGenerated.getIfPresent(key) != null) {
+            log.debug("Generation for '{}' is cooling down, skipping.", key);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Attach to the generation already running for this term
+        CompletableFuture<Void> promise = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            log.debug("Generation for '{}' already in flight, attaching.", key);
+            return existing;
+        }
+
+        try {
+            generation.get().whenComplete((result, error) -> {
+                if (error == null) {
+                    recentlyGenerated.put(key, Boolean.TRUE);
+                }
+                inFlight.remove(key, promise);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Submission failed (e.g. executor rejected the task), free the slot
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+            throw e;
+        }
+        return promise;
+    }
+
+    public boolean isInFlight(String searchWord) {
+        return inFlight.containsKey(SearchTermUtil.normalize(searchWord));
+    }
+
+}
@@ -1,18 +1,28 @@
 package com.nelani.recipe_search_backend.service.serviceImpl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
 import com.nelani.recipe_search_backend.model.Recipe;
 import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
 import com.nelani.recipe_search_backend.sockets.RecipeSocket;
+import com.nelani.recipe_search_backend.throttling.Upstream;
+import com.nelani.recipe_search_backend.throttling.UpstreamLimiter;
 
 import lombok.extern.log4j.Log4j2;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
@@ -21,9 +31,26 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Component
 @Log4j2
@@ -32,19 +59,70 @@ public class RecipeGenerator {
     @Value("${HUGGINGFACE_API_KEY}")
     private String huggingfaceApiKey;
 
+    @Value("${recipe.ai.url:https://router.huggingface.co/v1/chat/completions}")
+    private String aiUrl;
+
+    @Value("${recipe.ai.streaming:false}")
+    private boolean streamingEnabled;
+
     @Value("${UNSPLASH_API_KEY}")
     private String unsplashApiKey;
 
+    @Value("${recipe.images.batch-timeout:PT5S}")
+    private Duration imageBatchTimeout;
+
+    // Marks the end of a streamed completion in the queue of parsed recipes
+    private static final Recipe END_OF_STREAM = new Recipe();
+
     private final RecipeRepository recipeRepository;
     private final RecipeSocket recipeSocket;
-
-    public RecipeGenerator(RecipeRepository recipeRepository, RecipeSocket recipeSocket) {
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeSimilarityIndex recipeSimilarityIndex;
+    private final IngredientBitmapIndex ingredientBitmapIndex;
+    private final Executor imageTaskExecutor;
+    private final Executor aiStreamTaskExecutor;
+    private final RestTemplate restTemplate;
+    private final RestTemplate imageRestTemplate;
+    private final ObjectMapper objectMapper;
+    private final UpstreamLimiter upstreamLimiter;
+    private final SearchResultCache searchResultCache;
+    private final RecipeMetrics recipeMetrics;
+
+    public RecipeGenerator(RecipeRepository recipeRepository, RecipeSocket recipeSocket,
+            RecipeSearchIndex recipeSearchIndex, RecipeSimilarityIndex recipeSimilarityIndex,
+            IngredientBitmapIndex ingredientBitmapIndex, @Qualifier("imageTaskExecutor") Executor imageTaskExecutor,
+            @Qualifier("aiStreamTaskExecutor") Executor aiStreamTaskExecutor,
+            @Qualifier("outboundRestTemplate") RestTemplate restTemplate,
+            @Qualifier("imageRestTemplate") RestTemplate imageRestTemplate, ObjectMapper objectMapper,
+            UpstreamLimiter upstreamLimiter, SearchResultCache searchResultCache, RecipeMetrics recipeMetrics) {
         this.recipeRepository = recipeRepository;
         this.recipeSocket = recipeSocket;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeSimilarityIndex = recipeSimilarityIndex;
+        this.ingredientBitmapIndex = ingredientBitmapIndex;
+        this.imageTaskExecutor = imageTaskExecutor;
+        this.aiStreamTaskExecutor = aiStreamTaskExecutor;
+        this.restTemplate = restTemplate;
+        this.imageRestTemplate = imageRestTemplate;
+        this.objectMapper = objectMapper;
+        this.upstreamLimiter = upstreamLimiter;
+        this.searchResultCache = searchResultCache;
+        this.recipeMetrics = recipeMetrics;
     }
 
+    /**
+     * Generates, saves and pushes recipes for the search word. The returned future
+     * only completes normally if at least one new recipe was saved; otherwise it
+     * fails, so the term is not put on cooldown and the next search tries again.
+     */
     @Async("recipeTaskExecutor")
-    public void generateAndSaveRecipes(String searchWord) {
+    public CompletableFuture<Void> generateAndSaveRecipes(String searchWord) {
+        if (streamingEnabled) {
+            return generateAndSaveRecipesStreaming(searchWord) > 0
+                    ? CompletableFuture.completedFuture(null)
+                    : nothingSaved(searchWord);
+        }
+
         // Call AI service to fetch recipes (may return empty if AI fails or no matches
         // found)
         List<Recipe> recipes = fetchRecipesFromAi(searchWord);
@@ -52,30 +130,31 @@ public class RecipeGenerator {
         // Guard clause: stop early if no recipes were generated
         if (recipes == null || recipes.isEmpty()) {
             log.warn("No recipes generated for '{}'", searchWord);
-            return;
+            return nothingSaved(searchWord);
         }
 
-        List<Recipe> savedRecipes = new ArrayList<>();
-        // Try saving each recipe individually
-        recipes.forEach(recipe -> {
-            try {
-                // Attempt to insert recipe into DB
-                boolean exists = recipeRepository.existsByName(recipe.getName());
-
-                if (!exists) {
-                    saveRecipe(recipe);
-                    savedRecipes.add(recipe);
-                }
-            } catch (DataIntegrityViolationException e) {
-                // Skip duplicates (unique constraints like recipe name, etc.)
-                log.debug("Recipe '{}' already exists, skipping.", recipe.getName());
-            }
-        });
+        // Save every new recipe in a single batch
+        List<Recipe> savedRecipes = saveRecipes(recipes);
+        recipeSearchIndex.indexAll(savedRecipes);
+        recipeSimilarityIndex.indexAll(savedRecipes);
+        ingredientBitmapIndex.indexAll(savedRecipes);
+        searchResultCache.refreshTerm(searchWord);
 
         recipeSocket.sendAiResults(savedRecipes, searchWord);
 
+        if (savedRecipes.isEmpty()) {
+            log.warn("All {} recipes generated for '{}' already exist", recipes.size(), searchWord);
+            return nothingSaved(searchWord);
+        }
+
         // Log success with count of how many recipes were processed
         log.info("Successfully processed {} recipes for '{}'", recipes.size(), searchWord);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static CompletableFuture<Void> nothingSaved(String searchWord) {
+        return CompletableFuture.failedFuture(
+                new IllegalStateException("No new recipes were saved for '" + searchWord + "'"));
     }
 
     /**
@@ -86,16 +165,187 @@ public class RecipeGenerator {
      * @return List of Recipe objects
      */
     public List<Recipe> fetchRecipesFromAi(String searchWord) {
-        String url = "https://router.huggingface.co/v1/chat/completions";
-        RestTemplate restTemplate = new RestTemplate();
-
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + huggingfaceApiKey);
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        String inputJson = """
+        String inputJson = buildCompletionRequest(searchWord, false);
+
+        HttpEntity<String> entity = new HttpEntity<>(inputJson, headers);
+
+        try {
+            ResponseEntity<String> response = upstreamLimiter.call(Upstream.HUGGING_FACE,
+                    () -> recipeMetrics.call(RecipeMetrics.AI_REQUEST,
+                            () -> restTemplate.postForEntity(aiUrl, entity, String.class), "mode", "batch"));
+            List<Recipe> recipes = recipeMetrics.call(RecipeMetrics.AI_PARSE, () -> parseCompletion(response.getBody()));
+            if (recipes.isEmpty()) {
+                log.warn("No JSON array found in Hugging Face response for '{}'", searchWord);
+                recipeSocket.sendAiResults(Collections.emptyList(), searchWord);
+                return Collections.emptyList();
+            }
+            resolveImages(recipes);
+            return recipes;
+
+        } catch (Exception e) {
+            log.error("Failed to generate recipes for '{}'", searchWord, e);
+            recipeSocket.sendAiResults(Collections.emptyList(), searchWord);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Extracts the recipes from a (non streaming) chat completion response. The model
+     * tends to wrap the array in code fences or prose, so everything outside the
+     * outermost brackets is dropped before parsing.
+     *
+     * @param responseJson The raw response body from the chat API.
+     * @return The parsed recipes, or an empty list if the content holds no JSON array.
+     * @throws JsonProcessingException If the response or the extracted array is not valid JSON.
+     */
+    public List<Recipe> parseCompletion(String responseJson) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(responseJson);
+
+        String rawContent = root.get("choices")
+                .get(0)
+                .get("message")
+                .get("content")
+                .asText();
+
+        // Remove code fences and extra text
+        rawContent = rawContent.strip()
+                .replaceAll("(?s)^```.*?\\n", "")
+                .replaceAll("(?s)```$", "");
+
+        // Extract the JSON array inside the response
+        int start = rawContent.indexOf("[");
+        int end = rawContent.lastIndexOf("]");
+        if (start == -1 || end == -1 || end <= start) {
+            return Collections.emptyList();
+        }
+        String jsonArray = rawContent.substring(start, end + 1);
+
+        return objectMapper.readValue(jsonArray, new TypeReference<List<Recipe>>() {
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #generateAndSaveRecipes(String)}: every recipe is
+     * resolved, saved and pushed to the search topic as soon as the model finishes
+     * writing it, instead of after the whole completion has arrived.
+     *
+     * @param searchWord The main ingredient or recipe type to generate recipes for.
+     * @return The number of new recipes saved.
+     */
+    public int generateAndSaveRecipesStreaming(String searchWord) {
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger saved = new AtomicInteger();
+        try {
+            streamRecipesFromAi(searchWord, recipe -> {
+                generated.incrementAndGet();
+                resolveImages(List.of(recipe));
+
+                List<Recipe> savedRecipes = saveRecipes(List.of(recipe));
+                if (!savedRecipes.isEmpty()) {
+                    saved.addAndGet(savedRecipes.size());
+                    recipeSearchIndex.indexAll(savedRecipes);
+                    recipeSimilarityIndex.indexAll(savedRecipes);
+                    ingredientBitmapIndex.indexAll(savedRecipes);
+                    searchResultCache.refreshTerm(searchWord);
+                    recipeSocket.sendAiResults(savedRecipes, searchWord);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to stream recipes for '{}'", searchWord, e);
+        }
+
+        // Let subscribers know the generation produced nothing
+        if (generated.get() == 0) {
+            log.warn("No recipes generated for '{}'", searchWord);
+            recipeSocket.sendAiResults(Collections.emptyList(), searchWord);
+            return 0;
+        }
+        log.info("Successfully streamed {} recipes for '{}', {} new", generated.get(), searchWord, saved.get());
+        return saved.get();
+    }
+
+    /**
+     * Requests a streamed chat completion and hands each recipe to the consumer as
+     * soon as its JSON object is complete. Recipes that fail to parse are skipped.
+     * The stream is read on the AI stream executor, which holds the Hugging Face permit
+     * only until the completion ends; the consumer runs on the calling thread, so
+     * resolving images and saving never occupy the upstream.
+     *
+     * @param searchWord The main ingredient or recipe type to generate recipes for.
+     * @param onRecipe   Called on the calling thread for every parsed recipe.
+     */
+    public void streamRecipesFromAi(String searchWord, Consumer<Recipe> onRecipe) {
+        BlockingQueue<Recipe> parsed = new LinkedBlockingQueue<>();
+        CompletableFuture<Void> stream = CompletableFuture
+                .runAsync(() -> readRecipeStream(searchWord, parsed::add), aiStreamTaskExecutor)
+                .whenComplete((ignored, error) -> parsed.add(END_OF_STREAM));
+
+        try {
+            Recipe recipe;
+            while ((recipe = parsed.take()) != END_OF_STREAM) {
+                onRecipe.accept(recipe);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // Rethrows a failed request or a broken stream
+        stream.join();
+    }
+
+    private void readRecipeStream(String searchWord, Consumer<Recipe> onRecipe) {
+        String inputJson = buildCompletionRequest(searchWord, true);
+
+        // The permit is held for the whole stream, it occupies the upstream until [DONE]
+        upstreamLimiter.run(Upstream.HUGGING_FACE, () -> recipeMetrics.run(RecipeMetrics.AI_REQUEST,
+                () -> restTemplate.execute(aiUrl, HttpMethod.POST, request -> {
+            request.getHeaders().set("Authorization", "Bearer " + huggingfaceApiKey);
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+            request.getBody().write(inputJson.getBytes(StandardCharsets.UTF_8));
+        }, response -> {
+            StreamingRecipeParser parser = new StreamingRecipeParser();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+
+            // Server-sent events: one "data: {chunk}" line per delta, terminated by "data: [DONE]"
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring("data:".length()).strip();
+                if (data.equals("[DONE]")) {
+                    break;
+                }
+
+                JsonNode content = objectMapper.readTree(data)
+                        .path("choices").path(0).path("delta").path("content");
+                if (!content.isTextual()) {
+                    continue;
+                }
+
+                for (String recipeJson : parser.feed(content.asText())) {
+                    try {
+                        onRecipe.accept(objectMapper.readValue(recipeJson, Recipe.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping malformed streamed recipe for '{}'", searchWord, e);
+                    }
+                }
+            }
+            return null;
+        }), "mode", "stream"));
+    }
+
+    private String buildCompletionRequest(String searchWord, boolean stream) {
+        return """
                     {
                       "model": "deepseek-ai/DeepSeek-V3.1-Terminus:novita",
+                      "stream": %s,
                       "messages": [
                         {
                           "role": "user",
@@ -109,46 +359,53 @@ public class RecipeGenerator {
                       ]
                     }
                     """
-                .formatted(searchWord);
+                .formatted(stream, searchWord);
+    }
 
-        HttpEntity<String> entity = new HttpEntity<>(inputJson, headers);
+    /**
+     * Looks up the images for a generated batch concurrently on the image executor.
+     * Recipes whose lookup is still running when the batch deadline passes get the
+     * placeholder image, so one slow call cannot hold up the batch. Lookups still queued
+     * on the executor at the deadline are skipped, and the lookup itself runs on
+     * {@code imageRestTemplate}, which times out after the same interval.
+     *
+     * @param recipes The recipes to resolve images for.
+     */
+    public void resolveImages(List<Recipe> recipes) {
+        long deadline = System.nanoTime() + imageBatchTimeout.toNanos();
 
-        try {
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-            String responseJson = response.getBody();
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(responseJson);
-
-            String rawContent = root.get("choices")
-                    .get(0)
-                    .get("message")
-                    .get("content")
-                    .asText();
-
-            // Remove code fences and extra text
-            rawContent = rawContent.strip()
-                    .replaceAll("(?s)^```.*?\\n", "")
-                    .replaceAll("(?s)```$", "");
-
-            // Extract the JSON array inside the response
-            int start = rawContent.indexOf("[");
-            int end = rawContent.lastIndexOf("]");
-            if (start == -1 || end == -1 || end <= start) {
-                log.warn("No JSON array found in Hugging Face response for '{}'", searchWord);
-                recipeSocket.sendAiResults(Collections.emptyList(), searchWord);
-                return Collections.emptyList();
-            }
-            String jsonArray = rawContent.substring(start, end + 1);
+        // Start every lookup up front
+        List<CompletableFuture<String>> lookups = recipes.stream()
+                .map(recipe -> submitImageLookup(recipe.getName(), deadline))
+                .toList();
 
-            List<Recipe> recipes = mapper.readValue(jsonArray, new TypeReference<List<Recipe>>() {
-            });
-            recipes.forEach(recipe -> recipe.setImageUrl(recipeImageGenerator(recipe.getName())));
-            return recipes;
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe recipe = recipes.get(i);
+            CompletableFuture<String> lookup = lookups.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                recipe.setImageUrl(lookup.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                log.warn("Image lookup for '{}' missed the batch deadline, using placeholder", recipe.getName());
+                recipe.setImageUrl(placeholderImage(recipe.getName()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recipe.setImageUrl(placeholderImage(recipe.getName()));
+            } catch (ExecutionException e) {
+                recipe.setImageUrl(placeholderImage(recipe.getName()));
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate recipes for '{}'", searchWord, e);
-            recipeSocket.sendAiResults(Collections.emptyList(), searchWord);
-            return Collections.emptyList();
+    private CompletableFuture<String> submitImageLookup(String recipeName, long deadline) {
+        try {
+            // The batch has already moved on with the placeholder, don't spend an Unsplash call on it
+            return CompletableFuture.supplyAsync(() -> System.nanoTime() - deadline >= 0
+                    ? placeholderImage(recipeName)
+                    : recipeImageGenerator(recipeName), imageTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            // Image executor saturated, don't wait for a slot
+            return CompletableFuture.completedFuture(placeholderImage(recipeName));
         }
     }
 
@@ -156,15 +413,14 @@ public class RecipeGenerator {
         String url = "https://api.unsplash.com/search/photos?query="
                 + recipeName + "&client_id=" + unsplashApiKey;
 
-        RestTemplate restTemplate = new RestTemplate();
-
         try {
             // Call Unsplash API
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = upstreamLimiter.call(Upstream.UNSPLASH,
+                    () -> recipeMetrics.call(RecipeMetrics.IMAGE_REQUEST,
+                            () -> imageRestTemplate.getForEntity(url, String.class)));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode root = mapper.readTree(response.getBody());
+                JsonNode root = objectMapper.readTree(response.getBody());
 
                 // Navigate to first result's URL
                 JsonNode results = root.path("results");
@@ -174,13 +430,65 @@ public class RecipeGenerator {
             }
 
             // Fallback if no images found
-            return "https://via.placeholder.com/600x400.png?text=" + recipeName;
+            return placeholderImage(recipeName);
 
         } catch (Exception e) {
-            // Log and fallback
-            System.err.println("Error fetching image for " + recipeName + ": " + e.getMessage());
-            return "https://via.placeholder.com/600x400.png?text=" + recipeName;
+            log.warn("Failed to fetch image for '{}', using placeholder", recipeName, e);
+            return placeholderImage(recipeName);
+        }
+    }
+
+    private String placeholderImage(String recipeName) {
+        return "https://via.placeholder.com/600x400.png?text=" + recipeName;
+    }
+
+    /**
+     * Persists a batch of generated recipes. Existing names are resolved with a single
+     * query and the remaining recipes are inserted together so Hibernate can use JDBC
+     * batching. If the batch hits a constraint violation, the recipes are retried one
+     * at a time so a single duplicate does not drop the whole batch.
+     *
+     * @param recipes The generated recipes.
+     * @return The recipes that were actually inserted.
+     */
+    public List<Recipe> saveRecipes(List<Recipe> recipes) {
+        return recipeMetrics.call(RecipeMetrics.DB_SAVE, () -> insertRecipes(recipes));
+    }
+
+    private List<Recipe> insertRecipes(List<Recipe> recipes) {
+        // Drop duplicates within the batch itself, keeping the first occurrence
+        Map<String, Recipe> candidates = new LinkedHashMap<>();
+        recipes.forEach(recipe -> candidates.putIfAbsent(recipe.getName(), recipe));
+
+        // One existence check for every candidate name
+        Set<String> existingNames = recipeRepository.findExistingNames(candidates.keySet());
+        List<Recipe> newRecipes = candidates.values().stream()
+                .filter(recipe -> !existingNames.contains(recipe.getName()))
+                .toList();
+
+        if (newRecipes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            recipeRepository.saveAll(newRecipes);
+            return newRecipes;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert of {} recipes failed, retrying individually.", newRecipes.size());
         }
+
+        List<Recipe> savedRecipes = new ArrayList<>();
+        newRecipes.forEach(recipe -> {
+            try {
+                resetIds(recipe);
+                saveRecipe(recipe);
+                savedRecipes.add(recipe);
+            } catch (DataIntegrityViolationException e) {
+                // Skip duplicates (unique constraints like recipe name, etc.)
+                log.debug("Recipe '{}' already exists, skipping.", recipe.getName());
+            }
+        });
+        return savedRecipes;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -188,4 +496,15 @@ public class RecipeGenerator {
         recipeRepository.save(recipe);
     }
 
-}
\ No newline at end of file
+    // Ids handed out by the rolled back batch must not be reused, otherwise save() merges instead of inserting
+    private void resetIds(Recipe recipe) {
+        recipe.setId(null);
+        if (recipe.getIngredients() != null) {
+            recipe.getIngredients().forEach(ingredient -> ingredient.setId(null));
+        }
+        if (recipe.getSteps() != null) {
+            recipe.getSteps().forEach(step -> step.setId(null));
+        }
+    }
+
+}
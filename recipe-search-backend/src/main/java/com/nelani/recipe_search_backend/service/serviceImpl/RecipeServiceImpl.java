@@ -1,42 +1,81 @@
 package com.nelani.recipe_search_backend.service.serviceImpl;
 
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeFeedPageDto;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
 import com.nelani.recipe_search_backend.mapper.RecipeMapper;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
 import com.nelani.recipe_search_backend.model.DateFilter;
 import com.nelani.recipe_search_backend.model.MealType;
 import com.nelani.recipe_search_backend.model.Recipe;
 import com.nelani.recipe_search_backend.notifications.EmailService;
 import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex.Match;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
 import com.nelani.recipe_search_backend.service.RecipeService;
+import com.nelani.recipe_search_backend.throttling.GenerationAdmissionController;
 
 import com.nelani.recipe_search_backend.util.DateRangeUtil;
+import com.nelani.recipe_search_backend.util.FeedCursorUtil;
+import com.nelani.recipe_search_backend.util.SearchTermUtil;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RecipeServiceImpl implements RecipeService {
 
+    private static final int MAX_SIMILAR_RECIPES = 50;
+    // Bounds of the feed for DateFilter.ALL, within the range of SQL Server's datetime2
+    private static final LocalDateTime FEED_MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime FEED_MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final RecipeGenerator recipeGenerator;
     private final RecipeRepository recipeRepository;
     private final EmailService emailService;
+    private final GenerationAdmissionController generationAdmission;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeSimilarityIndex recipeSimilarityIndex;
+    private final IngredientBitmapIndex ingredientBitmapIndex;
+    private final SearchResultCache searchResultCache;
+    private final RecipeMetrics recipeMetrics;
 
     public RecipeServiceImpl(RecipeGenerator recipeGenerator, RecipeRepository recipeRepository,
-            EmailService emailService) {
+            EmailService emailService, GenerationAdmissionController generationAdmission, RecipeSearchIndex recipeSearchIndex,
+            RecipeSimilarityIndex recipeSimilarityIndex, IngredientBitmapIndex ingredientBitmapIndex,
+            SearchResultCache searchResultCache, RecipeMetrics recipeMetrics) {
         this.recipeGenerator = recipeGenerator;
         this.recipeRepository = recipeRepository;
         this.emailService = emailService;
+        this.generationAdmission = generationAdmission;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeSimilarityIndex = recipeSimilarityIndex;
+        this.ingredientBitmapIndex = ingredientBitmapIndex;
+        this.searchResultCache = searchResultCache;
+        this.recipeMetrics = recipeMetrics;
     }
 
     @Override
+    @Transactional(readOnly = true)
     @Cacheable(value = "recipe", key = "#publicId")
     public RecipeDto getRecipe(String publicId) {
-        // Fetch the Recipe
-        Recipe recipe = recipeRepository.findByPublicId(publicId)
+        // Fetch the Recipe with its ingredients and steps
+        Recipe recipe = recipeRepository.findWithDetailsByPublicId(publicId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid recipe Id."));
 
         // Return a RecipeDto to the user
@@ -44,23 +83,35 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
-    @Cacheable(value = "AI recipes", key = "#searchWord")
     public List<RecipeDto> getRecipes(String searchWord, int page, int size) {
-        // Fetch fallback immediately
-        Pageable pageable = PageRequest.of(page, size);
-        List<Recipe> fallbackRecipes = recipeRepository.searchRecipes(searchWord, pageable);
-        List<RecipeDto> fallbackRecipesDto = fallbackRecipes.stream()
-                .map(RecipeMapper::mapRecipeWithMinimalDetails)
-                .toList();
+        // Fetch fallback immediately, possibly a stale page that is being refreshed
+        boolean cached = searchResultCache.contains(searchWord, page, size);
+        List<RecipeDto> fallbackRecipesDto = searchRecipes(searchWord, page, size);
 
-        // Trigger async AI generation for DB population
-        recipeGenerator.generateAndSaveRecipes(searchWord);
+        // A full page served from the cache needs no new recipes. Otherwise trigger async AI generation for
+        // DB population, sharing any run already in flight for this term.
+        // Never blocks or throws, under load the generation is dropped and the fallback still returned
+        if (!cached || fallbackRecipesDto.size() < size) {
+            generationAdmission.submit(searchWord, () -> recipeGenerator.generateAndSaveRecipes(searchWord));
+        }
 
         // ️Return fallback instantly
         return fallbackRecipesDto;
     }
 
     @Override
+    public List<RecipeDto> searchRecipes(String searchWord, int page, int size) {
+        // Catalog search only, never triggers AI generation.
+        // Until the index is built the pages come from the database in id order. They are not cached, so a term
+        // never has pages in both orders side by side, which would repeat and skip results while paging
+        if (!recipeSearchIndex.isReady()) {
+            return loadSearchPage(SearchTermUtil.normalize(searchWord), page, size);
+        }
+        return searchResultCache.get(searchWord, page, size, this::loadSearchPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     @Cacheable(value = "recipes", key = "#startTime + '_' + #endTime + '_' + #mealType + '_' + #dateFilter + '_' + #page + '_' + #size")
     public List<RecipeDto> getRecipesByTimeAndMealType(int startTime, int endTime, MealType mealType,
             DateFilter dateFilter, int page, int size) {
@@ -68,24 +119,152 @@ public class RecipeServiceImpl implements RecipeService {
         LocalDateTime startDate = range[0];
         LocalDateTime endDate = range[1];
 
-        // fetch the recipes
+        // fetch the recipes, projected straight into DTOs
         Pageable pageable = PageRequest.of(page, size);
-        List<Recipe> recipes = recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate,
-                endDate, pageable);
+        return recipeMetrics.call(RecipeMetrics.DB_FILTER,
+                () -> recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate,
+                        pageable),
+                "query", "page");
+    }
 
-        return recipes.stream()
-                .map(RecipeMapper::mapRecipeWithMinimalDetails)
-                .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public RecipeFeedPageDto getRecipeFeed(int startTime, int endTime, MealType mealType, DateFilter dateFilter,
+            String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+
+        // ALL has no date range, the feed queries get the widest one instead of an optional predicate
+        LocalDateTime[] range = DateRangeUtil.getDateRange(dateFilter);
+        LocalDateTime startDate = range[0] != null ? range[0] : FEED_MIN_DATE;
+        LocalDateTime endDate = range[1] != null ? range[1] : FEED_MAX_DATE;
+
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<RecipeSummaryRow> recipes = recipeMetrics.call(RecipeMetrics.DB_FILTER,
+                () -> findFeedPage(startTime, endTime, mealType, startDate, endDate, cursor, limit),
+                "query", "feed");
+
+        boolean hasNext = recipes.size() > size;
+        List<RecipeSummaryRow> page = hasNext ? recipes.subList(0, size) : recipes;
+
+        String nextCursor = null;
+        if (hasNext) {
+            RecipeSummaryRow last = page.get(page.size() - 1);
+            nextCursor = FeedCursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return RecipeFeedPageDto.builder()
+                .recipes(page.stream()
+                        .map(RecipeMapper::mapRecipeSummary)
+                        .toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<RecipeSummaryRow> findFeedPage(int startTime, int endTime, MealType mealType,
+            LocalDateTime startDate, LocalDateTime endDate, String cursor, Limit limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return mealType == null
+                    ? recipeRepository.getRecipeFeed(startTime, endTime, startDate, endDate, limit)
+                    : recipeRepository.getRecipeFeedByMealType(startTime, endTime, mealType, startDate, endDate, limit);
+        }
+        LocalDateTime cursorCreatedAt = FeedCursorUtil.decodeCreatedAt(cursor);
+        Long cursorId = FeedCursorUtil.decodeId(cursor);
+        return mealType == null
+                ? recipeRepository.getRecipeFeedAfter(startTime, endTime, startDate, endDate, cursorCreatedAt,
+                        cursorId, limit)
+                : recipeRepository.getRecipeFeedByMealTypeAfter(startTime, endTime, mealType, startDate, endDate,
+                        cursorCreatedAt, cursorId, limit);
     }
 
     @Override
-    public void emailRecipe(String email, String publicId) {
-        // Fetch the Recipe
-        recipeRepository.findByPublicId(publicId)
+    @Transactional(readOnly = true)
+    public List<RecipeDto> getSimilarRecipes(String publicId, int size) {
+        validateSimilarSize(size);
+        Long recipeId = recipeRepository.findIdByPublicId(publicId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid recipe Id."));
 
-        // Email the recipe to the provided email
+        // Nearest neighbours in the local embedding index, the recipe itself excluded
+        return loadSummaries(recipeSimilarityIndex.similarTo(recipeId, size), "similarity");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecipeDto> findSimilarRecipes(String query, int size) {
+        validateSimilarSize(size);
+        return loadSummaries(recipeSimilarityIndex.search(query, size), "similarity");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecipeDto> cookWith(CookWithQuery query, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be at least 0 and page size at least 1.");
+        }
+        if (query.getMaxMissing() < 0) {
+            throw new IllegalArgumentException("Missing ingredients cannot be negative.");
+        }
+        if (query.getPantry().isEmpty() && query.getAllOf().isEmpty() && query.getAnyOf().isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient is required.");
+        }
+
+        // The bitmap index ranks the page, the database only fills in the columns
+        List<Match> matches = ingredientBitmapIndex.search(query, page, size);
+        Map<Long, RecipeSummaryRow> recipesById = loadSummaryRows(
+                matches.stream().map(Match::recipeId).toList(), "ingredients");
+        return matches.stream()
+                .filter(match -> recipesById.containsKey(match.recipeId()))
+                .map(match -> {
+                    RecipeDto recipe = RecipeMapper.mapRecipeSummary(recipesById.get(match.recipeId()));
+                    recipe.setMissingIngredients(match.missingIngredients());
+                    return recipe;
+                })
+                .toList();
+    }
+
+    @Override
+    public void emailRecipe(String email, String publicId) {
+        // Email the recipe to the provided email, rejects unknown ids before anything is queued
         emailService.prepareAndSendEmail(email, publicId);
     }
 
+    private List<RecipeDto> loadSearchPage(String searchWord, int page, int size) {
+        // Use the database query until the search index has been built
+        if (!recipeSearchIndex.isReady()) {
+            Pageable pageable = PageRequest.of(page, size);
+            return recipeMetrics.call(RecipeMetrics.DB_SEARCH,
+                    () -> recipeRepository.searchRecipes(searchWord, pageable), "source", "database");
+        }
+
+        return loadSummaries(recipeSearchIndex.search(searchWord, page, size), "index");
+    }
+
+    private static void validateSimilarSize(int size) {
+        if (size < 1 || size > MAX_SIMILAR_RECIPES) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SIMILAR_RECIPES + ".");
+        }
+    }
+
+    // Loads the recipes ranked by an in-memory index and restores the ranking order
+    private List<RecipeDto> loadSummaries(List<Long> rankedIds, String source) {
+        Map<Long, RecipeSummaryRow> recipesById = loadSummaryRows(rankedIds, source);
+        return rankedIds.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .map(RecipeMapper::mapRecipeSummary)
+                .toList();
+    }
+
+    private Map<Long, RecipeSummaryRow> loadSummaryRows(List<Long> ids, String source) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return recipeMetrics.call(RecipeMetrics.DB_SEARCH,
+                () -> recipeRepository.findSummariesByIdIn(ids), "source", source).stream()
+                .collect(Collectors.toMap(RecipeSummaryRow::getId, Function.identity()));
+    }
+
 }
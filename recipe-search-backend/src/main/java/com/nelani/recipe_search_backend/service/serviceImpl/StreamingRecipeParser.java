@@ -0,0 +1,60 @@
+package com.nelani.recipe_search_backend.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally extracts top-level JSON objects from a chat completion that is
+ * streamed in arbitrary fragments. Text outside objects (code fences, the enclosing
+ * array brackets, commas, prose) is ignored, and braces inside string literals do
+ * not affect nesting. Not thread safe, use one instance per stream.
+ */
+public class StreamingRecipeParser {
+
+    private final StringBuilder current = new StringBuilder();
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    /**
+     * Feeds the next fragment of the completion.
+     *
+     * @param fragment The newly received content.
+     * @return The JSON text of every object completed by this fragment, in order.
+     */
+    public List<String> feed(String fragment) {
+        List<String> completed = new ArrayList<>();
+        for (int i = 0; i < fragment.length(); i++) {
+            char c = fragment.charAt(i);
+
+            // Outside an object only an opening brace matters
+            if (depth == 0) {
+                if (c == '{') {
+                    depth = 1;
+                    current.append(c);
+                }
+                continue;
+            }
+
+            current.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                completed.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        return completed;
+    }
+
+}
@@ -1,26 +1,62 @@
 package com.nelani.recipe_search_backend.sockets;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
 import com.nelani.recipe_search_backend.mapper.RecipeMapper;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
 import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.util.SearchTermUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
 import java.util.List;
 
 @Component
+@Log4j2
 public class RecipeSocket {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final TopicSubscriptionRegistry subscriptionRegistry;
+    private final ObjectMapper objectMapper;
+    private final RecipeMetrics recipeMetrics;
 
-    public RecipeSocket(SimpMessagingTemplate messagingTemplate) {
+    public RecipeSocket(SimpMessagingTemplate messagingTemplate, TopicSubscriptionRegistry subscriptionRegistry,
+            ObjectMapper objectMapper, RecipeMetrics recipeMetrics) {
         this.messagingTemplate = messagingTemplate;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.objectMapper = objectMapper;
+        this.recipeMetrics = recipeMetrics;
     }
 
     public void sendAiResults (List<Recipe> recipes, String searchTerm) {
+        // Generation is shared by every spelling of a term, so all of them listen on the normalized topic
+        String destination = "/topic/recipes/" + SearchTermUtil.normalize(searchTerm);
+
+        // Nobody is waiting for this term, don't build a payload for nothing
+        if (!subscriptionRegistry.hasSubscribers(destination)) {
+            return;
+        }
+
         List<RecipeDto> formattedRecipes = recipes.stream()
                 .map(RecipeMapper::mapRecipeWithMinimalDetails)
                 .toList();
-        messagingTemplate.convertAndSend("/topic/recipes/" + searchTerm, formattedRecipes);
+        try {
+            // Serialized once, the broker shares the bytes between all subscriber sessions
+            byte[] payload = objectMapper.writeValueAsBytes(formattedRecipes);
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setLeaveMutable(true);
+
+            recipeMetrics.run(RecipeMetrics.SOCKET_PUSH,
+                    () -> messagingTemplate.send(destination, MessageBuilder.createMessage(payload,
+                            headers.getMessageHeaders())));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize recipes for '{}'", searchTerm, e);
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.nelani.recipe_search_backend.sockets;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which STOMP destinations currently have subscribers, so broadcasts to
+ * topics nobody listens to can be skipped before the payload is even built. Kept up
+ * to date from the session events published by the message broker; the user
+ * registry cannot be used because clients connect anonymously.
+ */
+@Component
+public class TopicSubscriptionRegistry {
+
+    private record Subscription(String sessionId, String subscriptionId) {
+    }
+
+    // Destination to its subscriptions, and every subscription to its destination for unsubscribe/disconnect
+    private final Map<String, Set<Subscription>> subscribersByDestination = new ConcurrentHashMap<>();
+    private final Map<Subscription, String> destinations = new ConcurrentHashMap<>();
+
+    public boolean hasSubscribers(String destination) {
+        Set<Subscription> subscribers = subscribersByDestination.get(destination);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    public int subscriberCount(String destination) {
+        Set<Subscription> subscribers = subscribersByDestination.get(destination);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || headers.getSessionId() == null) {
+            return;
+        }
+        Subscription subscription = new Subscription(headers.getSessionId(), headers.getSubscriptionId());
+        destinations.put(subscription, destination);
+        // Added inside compute so a concurrent removal of the last subscriber cannot drop it
+        subscribersByDestination.compute(destination, (key, subscribers) -> {
+            Set<Subscription> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        remove(new Subscription(headers.getSessionId(), headers.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String sessionId = event.getSessionId();
+        destinations.keySet().stream()
+                .filter(subscription -> subscription.sessionId().equals(sessionId))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    private void remove(Subscription subscription) {
+        String destination = destinations.remove(subscription);
+        if (destination == null) {
+            return;
+        }
+        // Drop the destination once its last subscriber is gone, terms are unbounded
+        subscribersByDestination.computeIfPresent(destination, (key, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+}
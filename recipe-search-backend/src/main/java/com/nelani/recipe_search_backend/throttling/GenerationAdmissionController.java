@@ -0,0 +1,157 @@
+package com.nelani.recipe_search_backend.throttling;
+
+import com.nelani.recipe_search_backend.service.serviceImpl.GenerationRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a background AI generation may start. Generations for the same
+ * term are deduplicated by the {@link GenerationRegistry}; a new term is admitted
+ * only while fewer than {@code max-pending} generations are queued or running and
+ * the global token bucket has an AI call left. Anything else, including a rejection
+ * by the executor, is shed and counted. Shedding never throws, so callers can
+ * always return the results they already have.
+ */
+@Component
+@Log4j2
+public class GenerationAdmissionController {
+
+    public static final String SHED_METRIC = "recipe.generation.shed";
+
+    /**
+     * Why a generation was not started.
+     */
+    public enum ShedReason {
+        QUEUE_FULL, RATE_LIMITED, REJECTED
+    }
+
+    private final GenerationRegistry generationRegistry;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<ShedReason, Counter> shedCounters;
+
+    // Token bucket for AI calls, guarded by this
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public GenerationAdmissionController(GenerationRegistry generationRegistry,
+            @Value("${recipe.generation.max-pending:100}") int maxPending,
+            @Value("${recipe.generation.rate-per-minute:30}") double ratePerMinute,
+            @Value("${recipe.generation.burst:10}") int burst,
+            MeterRegistry meterRegistry) {
+        this.generationRegistry = generationRegistry;
+        this.maxPending = maxPending;
+        this.capacity = burst;
+        this.tokensPerNano = ratePerMinute / 60_000_000_000d;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+
+        Gauge.builder("recipe.generation.pending", pending, AtomicInteger::get)
+                .description("Admitted generations that are queued or running")
+                .register(meterRegistry);
+        this.shedCounters = Map.of(
+                ShedReason.QUEUE_FULL, shedCounter(meterRegistry, ShedReason.QUEUE_FULL),
+                ShedReason.RATE_LIMITED, shedCounter(meterRegistry, ShedReason.RATE_LIMITED),
+                ShedReason.REJECTED, shedCounter(meterRegistry, ShedReason.REJECTED));
+    }
+
+    /**
+     * Starts the generation for the search word if it is admitted, otherwise drops
+     * it. Returns immediately either way.
+     *
+     * @param searchWord The raw search word.
+     * @param generation Starts the generation and returns its completion future.
+     * @return {@code false} if the generation was shed.
+     */
+    public boolean submit(String searchWord, Supplier<CompletableFuture<Void>> generation) {
+        try {
+            // Only invoked when no generation for the term is running or cooling down
+            generationRegistry.run(searchWord, () -> admit(generation));
+            return true;
+        } catch (GenerationShedException e) {
+            shed(searchWord, e.reason);
+        } catch (RejectedExecutionException e) {
+            // Executor queue full, covers Spring's TaskRejectedException
+            shed(searchWord, ShedReason.REJECTED);
+        }
+        return false;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    private CompletableFuture<Void> admit(Supplier<CompletableFuture<Void>> generation) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new GenerationShedException(ShedReason.QUEUE_FULL);
+        }
+        if (!tryAcquireToken()) {
+            pending.decrementAndGet();
+            throw new GenerationShedException(ShedReason.RATE_LIMITED);
+        }
+
+        try {
+            return generation.get().whenComplete((result, error) -> pending.decrementAndGet());
+        } catch (RejectedExecutionException e) {
+            // Never started, so it made no AI call and gives its token back
+            pending.decrementAndGet();
+            refundToken();
+            throw e;
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private synchronized boolean tryAcquireToken() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private synchronized void refundToken() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private void shed(String searchWord, ShedReason reason) {
+        shedCounters.get(reason).increment();
+        // Counted rather than logged loudly, shedding happens in bursts under load
+        log.debug("Shedding generation for '{}': {}", searchWord, reason);
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, ShedReason reason) {
+        return Counter.builder(SHED_METRIC)
+                .description("Background generations dropped under load")
+                .tag("reason", reason.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private static class GenerationShedException extends RejectedExecutionException {
+
+        private final ShedReason reason;
+
+        GenerationShedException(ShedReason reason) {
+            super(reason.name());
+            this.reason = reason;
+        }
+    }
+
+}
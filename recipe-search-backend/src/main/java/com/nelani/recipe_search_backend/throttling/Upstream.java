@@ -0,0 +1,11 @@
+package com.nelani.recipe_search_backend.throttling;
+
+/**
+ * External services the application calls, each limited independently by the
+ * {@link UpstreamLimiter}.
+ */
+public enum Upstream {
+    HUGGING_FACE,
+    UNSPLASH,
+    SMTP
+}
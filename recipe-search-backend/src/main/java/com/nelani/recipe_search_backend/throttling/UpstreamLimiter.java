@@ -0,0 +1,76 @@
+package com.nelani.recipe_search_backend.throttling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent calls to each upstream with a fair semaphore. This is
+ * what bounds outbound concurrency when the executors run on virtual threads and no
+ * longer have a pool size, and each upstream has its own permits so a backlog of
+ * slow Hugging Face calls never holds up image lookups or emails.
+ */
+@Component
+public class UpstreamLimiter {
+
+    private final Map<Upstream, Semaphore> permits = new EnumMap<>(Upstream.class);
+    private final Duration acquireTimeout;
+
+    public UpstreamLimiter(@Value("${recipe.upstream.hugging-face.max-concurrency:20}") int huggingFaceLimit,
+            @Value("${recipe.images.max-concurrency:10}") int unsplashLimit,
+            @Value("${recipe.upstream.smtp.max-concurrency:10}") int smtpLimit,
+            @Value("${recipe.upstream.acquire-timeout:PT1M}") Duration acquireTimeout) {
+        permits.put(Upstream.HUGGING_FACE, new Semaphore(huggingFaceLimit, true));
+        permits.put(Upstream.UNSPLASH, new Semaphore(unsplashLimit, true));
+        permits.put(Upstream.SMTP, new Semaphore(smtpLimit, true));
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Runs a call once a permit for the upstream is available.
+     *
+     * @param upstream The service being called.
+     * @param call     The blocking call.
+     * @return The result of the call.
+     * @throws RejectedExecutionException If no permit frees up within the acquire timeout.
+     */
+    public <T> T call(Upstream upstream, Supplier<T> call) {
+        Semaphore semaphore = permits.get(upstream);
+        acquire(upstream, semaphore);
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public void run(Upstream upstream, Runnable call) {
+        call(upstream, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public int availablePermits(Upstream upstream) {
+        return permits.get(upstream).availablePermits();
+    }
+
+    private void acquire(Upstream upstream, Semaphore semaphore) {
+        try {
+            if (!semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Timed out waiting for a " + upstream + " permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted waiting for a " + upstream + " permit", e);
+        }
+    }
+
+}
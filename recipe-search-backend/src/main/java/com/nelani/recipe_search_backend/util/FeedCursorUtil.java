@@ -0,0 +1,42 @@
+package com.nelani.recipe_search_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class FeedCursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LocalDateTime decodeCreatedAt(String cursor) {
+        return LocalDateTime.parse(split(cursor)[0]);
+    }
+
+    public static Long decodeId(String cursor) {
+        return Long.parseLong(split(cursor)[1]);
+    }
+
+    private static String[] split(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            // Validate both parts up front so callers get one consistent error
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.nelani.recipe_search_backend.util;
+
+import java.util.Locale;
+
+public class SearchTermUtil {
+
+    /**
+     * Normalizes a user supplied search term so that "Chicken", " chicken " and
+     * "CHICKEN" all resolve to the same key.
+     *
+     * @param searchWord The raw search word from the request.
+     * @return The trimmed, lower-cased term with inner whitespace collapsed.
+     */
+    public static String normalize(String searchWord) {
+        if (searchWord == null) {
+            return "";
+        }
+        return searchWord.strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,125 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.nelani.recipe_search_backend.search.RecipeSearchIndexReadyEvent;
+import com.nelani.recipe_search_backend.service.RecipeService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the most popular recorded queries once the search index is built so the first
+ * users after a deploy hit warm caches. Searches are only cached once they are served by
+ * the index, so replaying them earlier would warm nothing. Queries are replayed one at a time at a fixed
+ * rate to keep the load on the database low, and searches are replayed without
+ * triggering AI generation. Progress is exposed through the {@code warmup} actuator
+ * endpoint.
+ */
+@Component
+@Log4j2
+public class CacheWarmer {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED
+    }
+
+    private final RecipeService recipeService;
+    private final QueryHistoryRecorder queryHistoryRecorder;
+    private final boolean enabled;
+    private final int topQueries;
+    private final Duration pause;
+
+    private volatile State state = State.IDLE;
+    private volatile int total;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    public CacheWarmer(RecipeService recipeService, QueryHistoryRecorder queryHistoryRecorder,
+            @Value("${recipe.warmup.enabled:true}") boolean enabled,
+            @Value("${recipe.warmup.top-queries:50}") int topQueries,
+            @Value("${recipe.warmup.queries-per-second:5}") double queriesPerSecond) {
+        this.recipeService = recipeService;
+        this.queryHistoryRecorder = queryHistoryRecorder;
+        this.enabled = enabled;
+        this.topQueries = topQueries;
+        this.pause = Duration.ofNanos((long) (1_000_000_000L / queriesPerSecond));
+    }
+
+    // Runs on its own thread so a slow warm-up never holds threads generation needs
+    @Async("warmupTaskExecutor")
+    @EventListener(RecipeSearchIndexReadyEvent.class)
+    public void onSearchIndexReady() {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    public void warmUp() {
+        List<WarmupQuery> queries = queryHistoryRecorder.topQueries(topQueries);
+        total = queries.size();
+        completed.set(0);
+        failed.set(0);
+        startedAt = Instant.now();
+        finishedAt = null;
+        state = State.RUNNING;
+        log.info("Warming caches with {} recorded queries", total);
+
+        try {
+            for (int i = 0; i < queries.size(); i++) {
+                // Fixed pace between replays
+                if (i > 0) {
+                    TimeUnit.NANOSECONDS.sleep(pause.toNanos());
+                }
+                replay(queries.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cache warm-up interrupted after {} of {} queries", completed.get(), total);
+        } finally {
+            finishedAt = Instant.now();
+            state = State.COMPLETED;
+        }
+        log.info("Cache warm-up finished: {} replayed, {} failed in {} ms", completed.get(), failed.get(),
+                Duration.between(startedAt, finishedAt).toMillis());
+    }
+
+    public WarmupStatus status() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return WarmupStatus.builder()
+                .state(state)
+                .total(total)
+                .completed(completed.get())
+                .failed(failed.get())
+                .startedAt(start)
+                .finishedAt(finishedAt)
+                .durationMs(start == null ? null : Duration.between(start, end).toMillis())
+                .build();
+    }
+
+    private void replay(WarmupQuery query) {
+        try {
+            switch (query.getKind()) {
+                case SEARCH -> recipeService.searchRecipes(query.getSearchWord(), query.getPage(), query.getSize());
+                case FILTER -> recipeService.getRecipesByTimeAndMealType(query.getStartTime(), query.getEndTime(),
+                        query.getMealType(), query.getDateFilter(), query.getPage(), query.getSize());
+            }
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.warn("Failed to replay {}", query, e);
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelani.recipe_search_backend.model.DateFilter;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.util.SearchTermUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each search and filter combination is requested and keeps the
+ * counts in a JSON file, so the most popular ones can be replayed by the
+ * {@link CacheWarmer} after the next restart. Counts carry over between restarts.
+ */
+@Component
+@Log4j2
+public class QueryHistoryRecorder {
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HistoryEntry {
+        private WarmupQuery query;
+        private long count;
+    }
+
+    private final ConcurrentMap<WarmupQuery, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Path historyFile;
+    private final int maxTracked;
+    private final ObjectMapper objectMapper;
+
+    public QueryHistoryRecorder(@Value("${recipe.warmup.history-file}") Path historyFile,
+            @Value("${recipe.warmup.max-tracked:1000}") int maxTracked, ObjectMapper objectMapper) {
+        this.historyFile = historyFile;
+        this.maxTracked = maxTracked;
+        this.objectMapper = objectMapper;
+        load();
+    }
+
+    public void recordSearch(String searchWord, int page, int size) {
+        record(WarmupQuery.search(SearchTermUtil.normalize(searchWord), page, size));
+    }
+
+    public void recordFilter(int startTime, int endTime, MealType mealType, DateFilter dateFilter, int page,
+            int size) {
+        record(WarmupQuery.filter(startTime, endTime, mealType, dateFilter, page, size));
+    }
+
+    /**
+     * @param limit Maximum number of queries to return.
+     * @return The most frequently requested queries, most popular first.
+     */
+    public List<WarmupQuery> topQueries(int limit) {
+        return snapshot().stream()
+                .limit(limit)
+                .map(HistoryEntry::getQuery)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.warmup.persist-interval:PT5M}",
+            initialDelayString = "${recipe.warmup.persist-interval:PT5M}")
+    @PreDestroy
+    public void persist() {
+        try {
+            Files.createDirectories(historyFile.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(historyFile.toAbsolutePath().getParent(), "query-history", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot());
+            Files.move(temp, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist query history to {}", historyFile, e);
+        }
+    }
+
+    private void record(WarmupQuery query) {
+        LongAdder count = counts.get(query);
+        if (count == null) {
+            if (counts.size() >= maxTracked) {
+                prune();
+            }
+            count = counts.computeIfAbsent(query, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    // Drops the less popular half so new queries can still be tracked
+    private synchronized void prune() {
+        if (counts.size() < maxTracked) {
+            return;
+        }
+        snapshot().stream()
+                .skip(maxTracked / 2)
+                .forEach(entry -> counts.remove(entry.getQuery()));
+    }
+
+    private List<HistoryEntry> snapshot() {
+        return counts.entrySet().stream()
+                .map(entry -> new HistoryEntry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(HistoryEntry::getCount).reversed())
+                .toList();
+    }
+
+    private void load() {
+        if (!Files.exists(historyFile)) {
+            return;
+        }
+        try {
+            List<HistoryEntry> entries = objectMapper.readValue(historyFile.toFile(),
+                    new TypeReference<List<HistoryEntry>>() {
+                    });
+            entries.stream()
+                    .limit(maxTracked)
+                    .forEach(entry -> counts.computeIfAbsent(entry.getQuery(), key -> new LongAdder())
+                            .add(entry.getCount()));
+            log.info("Loaded {} recorded queries from {}", counts.size(), historyFile);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable query history {}", historyFile, e);
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the progress of the startup cache warm-up at {@code /actuator/warmup}.
+ */
+@Component
+@Endpoint(id = "warmup")
+public class WarmupEndpoint {
+
+    private final CacheWarmer cacheWarmer;
+
+    public WarmupEndpoint(CacheWarmer cacheWarmer) {
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    @ReadOperation
+    public WarmupStatus status() {
+        return cacheWarmer.status();
+    }
+
+}
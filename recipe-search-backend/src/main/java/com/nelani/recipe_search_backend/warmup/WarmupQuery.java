@@ -0,0 +1,57 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nelani.recipe_search_backend.model.DateFilter;
+import com.nelani.recipe_search_backend.model.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A recorded request that can be replayed to warm the caches: either a search or a
+ * filtered listing with its paging.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WarmupQuery {
+
+    public enum Kind {
+        SEARCH,
+        FILTER
+    }
+
+    private Kind kind;
+    private String searchWord;
+    private Integer startTime;
+    private Integer endTime;
+    private MealType mealType;
+    private DateFilter dateFilter;
+    private int page;
+    private int size;
+
+    public static WarmupQuery search(String searchWord, int page, int size) {
+        return WarmupQuery.builder()
+                .kind(Kind.SEARCH)
+                .searchWord(searchWord)
+                .page(page)
+                .size(size)
+                .build();
+    }
+
+    public static WarmupQuery filter(int startTime, int endTime, MealType mealType, DateFilter dateFilter, int page,
+            int size) {
+        return WarmupQuery.builder()
+                .kind(Kind.FILTER)
+                .startTime(startTime)
+                .endTime(endTime)
+                .mealType(mealType)
+                .dateFilter(dateFilter)
+                .page(page)
+                .size(size)
+                .build();
+    }
+}
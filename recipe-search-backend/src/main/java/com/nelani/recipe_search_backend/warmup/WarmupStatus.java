@@ -0,0 +1,24 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WarmupStatus {
+    private CacheWarmer.State state;
+    private int total;
+    private int completed;
+    private int failed;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+}
@@ -0,0 +1,110 @@
+package com.nelani.recipe_search_backend.cache;
+
+import com.nelani.recipe_search_backend.dto.IngredientDto;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.model.MealType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+public class FileCacheStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void FileCacheStore_Get_ReturnsEntriesWrittenBeforeRestart() {
+        // Arrange
+        RecipeDto recipe = createRecipe("chicken-curry-a1b2c3");
+        new FileCacheStore(directory, Duration.ofDays(1), 1_000_000).put("recipe", "chicken-curry-a1b2c3", recipe);
+
+        // Act
+        FileCacheStore restarted = new FileCacheStore(directory, Duration.ofDays(1), 1_000_000);
+        Object stored = restarted.get("recipe", "chicken-curry-a1b2c3");
+
+        // Assert
+        Assertions.assertThat(stored).isEqualTo(recipe);
+        Assertions.assertThat(restarted.get("recipes", "chicken-curry-a1b2c3")).isNull();
+    }
+
+    @Test
+    public void FileCacheStore_Get_DropsExpiredEntries() {
+        // Arrange
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        new FileCacheStore(directory, Duration.ofHours(1), 1_000_000, Clock.fixed(now, ZoneOffset.UTC))
+                .put("recipe", "key", createRecipe("key"));
+
+        // Act
+        FileCacheStore restarted = new FileCacheStore(directory, Duration.ofHours(1), 1_000_000,
+                Clock.fixed(now.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        // Assert
+        Assertions.assertThat(restarted.get("recipe", "key")).isNull();
+        Assertions.assertThat(restarted.sizeBytes()).isZero();
+    }
+
+    @Test
+    public void FileCacheStore_Put_EvictsOldestEntriesOverSizeBound() {
+        // Arrange
+        FileCacheStore store = new FileCacheStore(directory, Duration.ofDays(1), 1_000_000);
+        store.put("recipe", "probe", createRecipe("probe"));
+        long entrySize = store.sizeBytes();
+        store.evict("recipe", "probe");
+
+        // Room for two entries only
+        store = new FileCacheStore(directory, Duration.ofDays(1), entrySize * 2 + entrySize / 2);
+
+        // Act
+        store.put("recipe", "first", createRecipe("first"));
+        sleepOneMillisecond();
+        store.put("recipe", "second", createRecipe("second"));
+        sleepOneMillisecond();
+        store.put("recipe", "third", createRecipe("third"));
+
+        // Assert
+        Assertions.assertThat(store.get("recipe", "first")).isNull();
+        Assertions.assertThat(store.get("recipe", "second")).isNotNull();
+        Assertions.assertThat(store.get("recipe", "third")).isNotNull();
+        Assertions.assertThat(store.sizeBytes()).isLessThanOrEqualTo(entrySize * 2 + entrySize / 2);
+    }
+
+    @Test
+    public void FileCacheStore_Get_RejectsPayloadsOutsideTheAllowList() {
+        // Arrange
+        FileCacheStore store = new FileCacheStore(directory, Duration.ofDays(1), 1_000_000);
+        store.put("recipe", "foreign", new java.net.InetSocketAddress(8080));
+
+        // Act
+        Object stored = store.get("recipe", "foreign");
+
+        // Assert
+        Assertions.assertThat(stored).isNull();
+        Assertions.assertThat(store.sizeBytes()).isZero();
+    }
+
+    private RecipeDto createRecipe(String publicId) {
+        return RecipeDto.builder()
+                .publicId(publicId)
+                .name("Chicken Curry")
+                .mealType(MealType.DINNER)
+                .cookTimeMinutes(45)
+                .ingredients(List.of(IngredientDto.builder().name("chicken").quantity("500 g").build()))
+                .build();
+    }
+
+    private void sleepOneMillisecond() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
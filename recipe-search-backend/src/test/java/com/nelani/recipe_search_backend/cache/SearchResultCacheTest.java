@@ -0,0 +1,153 @@
+package com.nelani.recipe_search_backend.cache;
+
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SearchResultCacheTest {
+
+    private final List<String> loads = new ArrayList<>();
+
+    @Test
+    public void SearchResultCache_Get_NormalizesTermAndKeysByPage() {
+        // Arrange
+        SearchResultCache cache = createCache(Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+        // Act
+        cache.get("Chicken", 0, 5, this::loadPage);
+        cache.get("  chicken ", 0, 5, this::loadPage);
+        List<RecipeDto> secondPage = cache.get("chicken", 1, 5, this::loadPage);
+
+        // Assert
+        Assertions.assertThat(loads).containsExactly("chicken/0/5", "chicken/1/5");
+        Assertions.assertThat(secondPage).extracting(RecipeDto::getName).containsExactly("chicken/1/5");
+    }
+
+    @Test
+    public void SearchResultCache_RefreshTerm_ReloadsEveryPageOfTerm() {
+        // Arrange
+        SearchResultCache cache = createCache(Duration.ofMinutes(1), Duration.ofMinutes(5));
+        AtomicInteger version = new AtomicInteger();
+        SearchResultCache.SearchLoader loader = (term, page, size) ->
+                List.of(RecipeDto.builder().name(term + " v" + version.get()).build());
+        cache.get("chicken", 0, 5, loader);
+        cache.get("chicken", 1, 5, loader);
+        cache.get("beef", 0, 5, loader);
+
+        // Act
+        version.incrementAndGet();
+        cache.refreshTerm(" Chicken");
+
+        // Assert
+        Assertions.assertThat(cache.get("chicken", 0, 5, loader)).extracting(RecipeDto::getName)
+                .containsExactly("chicken v1");
+        Assertions.assertThat(cache.get("chicken", 1, 5, loader)).extracting(RecipeDto::getName)
+                .containsExactly("chicken v1");
+        Assertions.assertThat(cache.get("beef", 0, 5, loader)).extracting(RecipeDto::getName)
+                .containsExactly("beef v0");
+    }
+
+    @Test
+    public void SearchResultCache_RefreshTerm_ReloadsAgainAfterWriteDuringReload() {
+        // Arrange
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        SearchResultCache cache = new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 500, pendingRefreshes::add, null);
+        AtomicInteger version = new AtomicInteger();
+        SearchResultCache.SearchLoader loader = (term, page, size) ->
+                List.of(RecipeDto.builder().name("v" + version.get()).build());
+        cache.get("chicken", 0, 5, loader);
+        cache.refreshTerm("chicken");
+
+        // Act: the second write lands while the first reload is still queued
+        cache.refreshTerm("chicken");
+        int queuedDuringReload = pendingRefreshes.size();
+        pendingRefreshes.remove(0).run();
+        version.incrementAndGet();
+        pendingRefreshes.remove(0).run();
+
+        // Assert
+        Assertions.assertThat(queuedDuringReload).isEqualTo(1);
+        Assertions.assertThat(pendingRefreshes).isEmpty();
+        Assertions.assertThat(cache.get("chicken", 0, 5, loader)).extracting(RecipeDto::getName)
+                .containsExactly("v1");
+    }
+
+    @Test
+    public void SearchResultCache_Get_ServesStalePageWhileRefreshing() {
+        // Arrange: every read is past the refresh interval
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        SearchResultCache cache = new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1), Duration.ZERO,
+                500, pendingRefreshes::add, null);
+        AtomicInteger version = new AtomicInteger();
+        SearchResultCache.SearchLoader loader = (term, page, size) ->
+                List.of(RecipeDto.builder().name("v" + version.get()).build());
+        cache.get("chicken", 0, 5, loader);
+        version.incrementAndGet();
+
+        // Act
+        List<RecipeDto> stale = cache.get("chicken", 0, 5, loader);
+        pendingRefreshes.forEach(Runnable::run);
+        List<RecipeDto> refreshed = cache.get("chicken", 0, 5, loader);
+
+        // Assert
+        Assertions.assertThat(stale).extracting(RecipeDto::getName).containsExactly("v0");
+        Assertions.assertThat(refreshed).extracting(RecipeDto::getName).containsExactly("v1");
+    }
+
+    @Test
+    public void SearchResultCache_Get_ExpiresEmptyPagesQuickly() throws InterruptedException {
+        // Arrange
+        SearchResultCache cache = createCache(Duration.ofMillis(50), Duration.ofMinutes(5));
+        cache.get("chicken", 0, 5, (term, page, size) -> Collections.emptyList());
+        cache.get("beef", 0, 5, this::loadPage);
+
+        // Act
+        Thread.sleep(100);
+        List<RecipeDto> reloaded = cache.get("chicken", 0, 5, this::loadPage);
+        cache.get("beef", 0, 5, this::loadPage);
+
+        // Assert
+        Assertions.assertThat(reloaded).extracting(RecipeDto::getName).containsExactly("chicken/0/5");
+        Assertions.assertThat(loads).containsExactly("beef/0/5", "chicken/0/5");
+    }
+
+    @Test
+    public void SearchResultCache_Get_RevalidatesPagesRestoredFromDisk(@TempDir Path directory) {
+        // Arrange
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        FileCacheStore store = new FileCacheStore(directory, Duration.ofDays(1), 1_000_000);
+        new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1), Duration.ofMinutes(5), 500,
+                Runnable::run, store).get("chicken", 0, 5, this::loadPage);
+
+        // Act: a new instance simulates a restart
+        SearchResultCache restarted = new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 500, pendingRefreshes::add,
+                new FileCacheStore(directory, Duration.ofDays(1), 1_000_000));
+        List<RecipeDto> restored = restarted.get("Chicken", 0, 5, this::loadPage);
+
+        // Assert: served from disk without a load, with a refresh queued
+        Assertions.assertThat(restored).extracting(RecipeDto::getName).containsExactly("chicken/0/5");
+        Assertions.assertThat(loads).containsExactly("chicken/0/5");
+        Assertions.assertThat(pendingRefreshes).hasSize(1);
+    }
+
+    private SearchResultCache createCache(Duration emptyTtl, Duration refreshAfter) {
+        return new SearchResultCache(Duration.ofDays(1), emptyTtl, refreshAfter, 500, Runnable::run, null);
+    }
+
+    private List<RecipeDto> loadPage(String term, int page, int size) {
+        String name = term + "/" + page + "/" + size;
+        loads.add(name);
+        return List.of(RecipeDto.builder().name(name).build());
+    }
+
+}
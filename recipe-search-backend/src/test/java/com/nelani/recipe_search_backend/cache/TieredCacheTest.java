@@ -0,0 +1,55 @@
+package com.nelani.recipe_search_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public class TieredCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void TieredCache_Get_WarmsFirstTierFromDiskAfterRestart() {
+        // Arrange
+        List<RecipeDto> recipes = List.of(RecipeDto.builder().publicId("beef-stew-1").name("Beef Stew").build());
+        createCache().put("0_180_null_ALL_0_20", recipes);
+
+        // Act: a new first tier simulates a restart
+        CaffeineCache firstTier = new CaffeineCache("recipes", Caffeine.newBuilder().build());
+        TieredCache restarted = new TieredCache(firstTier,
+                new FileCacheStore(directory, Duration.ofDays(1), 1_000_000));
+        Object value = restarted.get("0_180_null_ALL_0_20", List.class);
+
+        // Assert
+        Assertions.assertThat(value).isEqualTo(recipes);
+        Assertions.assertThat(firstTier.get("0_180_null_ALL_0_20")).isNotNull();
+    }
+
+    @Test
+    public void TieredCache_Evict_RemovesFromBothTiers() {
+        // Arrange
+        TieredCache cache = createCache();
+        cache.put("key", RecipeDto.builder().name("Beef Stew").build());
+
+        // Act
+        cache.evict("key");
+
+        // Assert
+        Assertions.assertThat(cache.get("key")).isNull();
+        Assertions.assertThat(createCache().get("key")).isNull();
+    }
+
+    private TieredCache createCache() {
+        return new TieredCache(new CaffeineCache("recipes", Caffeine.newBuilder().build()),
+                new FileCacheStore(directory, Duration.ofDays(1), 1_000_000));
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.nelani.recipe_search_backend.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.dto.CatalogRecipeDto;
+import com.nelani.recipe_search_backend.dto.IngredientDto;
+import com.nelani.recipe_search_backend.dto.StepDto;
+import com.nelani.recipe_search_backend.model.Ingredient;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.model.Step;
+import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Chunks commit in their own transactions, so the test runs without one and cleans up after itself
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogImporterTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final RecipeSearchIndex recipeSearchIndex = Mockito.mock(RecipeSearchIndex.class);
+    private final SearchResultCache searchResultCache = Mockito.mock(SearchResultCache.class);
+
+    private CatalogExporter catalogExporter;
+    private CatalogImporter catalogImporter;
+
+    @BeforeEach
+    public void init() {
+        // One recipe per batch, so the export crosses a batch boundary
+        catalogExporter = new CatalogExporter(new JdbcTemplate(dataSource), transactionManager, objectMapper, true, 1);
+        catalogImporter = importer(true);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    public void CatalogImporter_ImportCatalog_RestoresExportedRecipes() throws Exception {
+        // Arrange
+        recipeRepository.save(createRecipe("pancakes-1a2b3c", "Pancakes", MealType.BREAKFAST,
+                List.of(createIngredient("flour", "2 cups"), createIngredient("milk", "1 cup")),
+                List.of(createStep("Whisk", 2), createStep("Fry", 8))));
+        recipeRepository.save(createRecipe("soup-4d5e6f", "Soup", MealType.SOUP,
+                List.of(createIngredient("stock", "1 l")),
+                List.of(createStep("Simmer", 30))));
+
+        // Act: export, wipe the catalog and import the export again
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        long exported = catalogExporter.export(export);
+        recipeRepository.deleteAll();
+        CatalogImportStatus status = catalogImporter.importCatalog(new ByteArrayInputStream(export.toByteArray()));
+
+        // Assert
+        List<String> lines = export.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertThat(exported).isEqualTo(2);
+        Assertions.assertThat(lines).hasSize(2);
+        CatalogRecipeDto first = objectMapper.readValue(lines.get(0), CatalogRecipeDto.class);
+        Assertions.assertThat(first.getName()).isEqualTo("Pancakes");
+        Assertions.assertThat(first.getIngredients()).extracting("name").containsExactly("flour", "milk");
+        Assertions.assertThat(first.getSteps()).extracting("description").containsExactly("Whisk", "Fry");
+        CatalogRecipeDto second = objectMapper.readValue(lines.get(1), CatalogRecipeDto.class);
+        Assertions.assertThat(second.getName()).isEqualTo("Soup");
+        Assertions.assertThat(second.getIngredients()).extracting("name").containsExactly("stock");
+        Assertions.assertThat(second.getSteps()).extracting("description").containsExactly("Simmer");
+
+        Assertions.assertThat(status.getState()).isEqualTo(CatalogImporter.State.COMPLETED);
+        Assertions.assertThat(status.getImported()).isEqualTo(2);
+        Assertions.assertThat(status.getChunks()).isEqualTo(1);
+        Recipe restored = recipeRepository.findWithDetailsByPublicId("pancakes-1a2b3c").orElseThrow();
+        Assertions.assertThat(restored.getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 3, 1, 8, 30));
+        Assertions.assertThat(restored.getIngredients()).extracting(Ingredient::getQuantity)
+                .containsExactlyInAnyOrder("2 cups", "1 cup");
+        Assertions.assertThat(restored.getSteps()).extracting(Step::getEstimatedMinutes)
+                .containsExactlyInAnyOrder(2, 8);
+        verify(recipeSearchIndex).indexAll(anyCollection());
+        verify(searchResultCache).invalidateAll();
+    }
+
+    @Test
+    public void CatalogImporter_ImportCatalog_SkipsDuplicatesAndReportsInvalidLines() throws Exception {
+        // Arrange
+        recipeRepository.save(createRecipe("pancakes-1a2b3c", "Pancakes", MealType.BREAKFAST,
+                List.of(createIngredient("flour", "2 cups")), List.of(createStep("Fry", 8))));
+        String input = String.join("\n",
+                line("pancakes-1a2b3c", "Pancakes"),
+                line(null, "Omelette"),
+                "{not json",
+                "",
+                "{\"name\":\"Toast\",\"imageUrl\":\"img\",\"mealType\":\"BREAKFAST\",\"cookTimeMinutes\":3}",
+                line(null, "Omelette"),
+                line(null, "Porridge"));
+
+        // Act
+        CatalogImportStatus status = catalogImporter.importCatalog(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: chunks of two, the repeated pancakes and omelette are skipped
+        Assertions.assertThat(status.getLinesRead()).isEqualTo(6);
+        Assertions.assertThat(status.getImported()).isEqualTo(2);
+        Assertions.assertThat(status.getSkipped()).isEqualTo(2);
+        Assertions.assertThat(status.getInvalid()).isEqualTo(2);
+        Assertions.assertThat(status.getChunks()).isEqualTo(2);
+        Assertions.assertThat(status.getErrors()).hasSize(2);
+        Assertions.assertThat(status.getErrors().get(0)).startsWith("Line 3: malformed JSON");
+        Assertions.assertThat(status.getErrors().get(1)).isEqualTo(
+                "Line 5: Recipe must have at least one ingredient, Recipe must have at least one step");
+        Assertions.assertThat(recipeRepository.findExistingNames(List.of("Pancakes", "Omelette", "Porridge")))
+                .containsExactlyInAnyOrder("Pancakes", "Omelette", "Porridge");
+        verify(recipeSearchIndex, times(2)).indexAll(anyCollection());
+    }
+
+    @Test
+    public void CatalogImporter_ImportCatalog_RejectsWhenDisabled() {
+        // Arrange
+        CatalogImporter disabledImporter = importer(false);
+
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> disabledImporter.importCatalog(new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Catalog import is disabled.");
+        Assertions.assertThat(disabledImporter.status().getState()).isEqualTo(CatalogImporter.State.IDLE);
+    }
+
+    @Test
+    public void CatalogExporter_Export_RejectsWhenDisabled() {
+        // Arrange
+        CatalogExporter disabledExporter = new CatalogExporter(new JdbcTemplate(dataSource), transactionManager,
+                objectMapper, false, 2);
+
+        // Act & Assert
+        Assertions.assertThatThrownBy(() -> disabledExporter.export(new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Catalog export is disabled.");
+    }
+
+    private CatalogImporter importer(boolean enabled) {
+        return new CatalogImporter(recipeRepository, transactionManager, validator, objectMapper,
+                recipeSearchIndex, Mockito.mock(RecipeSimilarityIndex.class), Mockito.mock(IngredientBitmapIndex.class),
+                searchResultCache, enabled, 2);
+    }
+
+    private String line(String publicId, String name) throws Exception {
+        return objectMapper.writeValueAsString(CatalogRecipeDto.builder()
+                .publicId(publicId)
+                .name(name)
+                .imageUrl("img")
+                .mealType(MealType.BREAKFAST)
+                .cookTimeMinutes(10)
+                .ingredients(List.of(new IngredientDto("egg", "2")))
+                .steps(List.of(new StepDto("Cook", 10)))
+                .build());
+    }
+
+    private Recipe createRecipe(String publicId, String name, MealType mealType, List<Ingredient> ingredients,
+            List<Step> steps) {
+        return Recipe.builder()
+                .publicId(publicId)
+                .name(name)
+                .imageUrl("img")
+                .mealType(mealType)
+                .cookTimeMinutes(10)
+                .createdAt(LocalDateTime.of(2025, 3, 1, 8, 30))
+                .ingredients(new ArrayList<>(ingredients))
+                .steps(new ArrayList<>(steps))
+                .build();
+    }
+
+    private Ingredient createIngredient(String name, String quantity) {
+        return Ingredient.builder().name(name).quantity(quantity).build();
+    }
+
+    private Step createStep(String description, int estimatedMinutes) {
+        return Step.builder().description(description).estimatedMinutes(estimatedMinutes).build();
+    }
+
+}
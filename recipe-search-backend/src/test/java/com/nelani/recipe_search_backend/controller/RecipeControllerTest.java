@@ -1,10 +1,13 @@
 package com.nelani.recipe_search_backend.controller;
 
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
 import com.nelani.recipe_search_backend.dto.IngredientDto;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeFeedPageDto;
 import com.nelani.recipe_search_backend.dto.StepDto;
 import com.nelani.recipe_search_backend.model.*;
 import com.nelani.recipe_search_backend.service.RecipeService;
+import com.nelani.recipe_search_backend.warmup.QueryHistoryRecorder;
 import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,21 +17,28 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @WebMvcTest(controllers = RecipeController.class)
+@Import(RecipeDetailRenderer.class)
 @AutoConfigureMockMvc(addFilters = false)
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles("test")
@@ -40,6 +50,9 @@ public class RecipeControllerTest {
         @MockitoBean
         private RecipeService recipeService;
 
+        @MockitoBean
+        private QueryHistoryRecorder queryHistoryRecorder;
+
         private List<RecipeDto> recipeList;
 
         @BeforeEach
@@ -73,6 +86,101 @@ public class RecipeControllerTest {
                                 .andExpect(jsonPath("$.name").value("recipe0"));
         }
 
+        @Test
+        public void RecipeController_FindSimilarRecipes_ReturnsRecipeList() throws Exception {
+                // Arrange
+                when(recipeService.findSimilarRecipes("spicy chicken stew", 2)).thenReturn(recipeList.subList(0, 2));
+
+                // Act
+                ResultActions response = mockMvc.perform(get("/api/recipe/similar")
+                                .param("query", "spicy chicken stew")
+                                .param("size", "2"));
+
+                // Assert
+                response.andExpect(MockMvcResultMatchers.status().isOk())
+                                .andExpect(jsonPath("$.size()").value(2))
+                                .andExpect(jsonPath("$[0].name").value("recipe0"));
+        }
+
+        @Test
+        public void RecipeController_CookWith_ReturnsRankedRecipes() throws Exception {
+                // Arrange
+                CookWithQuery query = CookWithQuery.builder()
+                                .pantry(List.of("rice", "eggs"))
+                                .maxMissing(1)
+                                .noneOf(List.of("peanuts"))
+                                .mealType(MealType.BREAKFAST)
+                                .build();
+                when(recipeService.cookWith(query, 0, 20)).thenReturn(recipeList.subList(0, 1));
+
+                // Act
+                ResultActions response = mockMvc.perform(get("/api/recipe/cook-with")
+                                .param("pantry", "rice", "eggs")
+                                .param("maxMissing", "1")
+                                .param("noneOf", "peanuts")
+                                .param("mealType", "BREAKFAST"));
+
+                // Assert
+                response.andExpect(MockMvcResultMatchers.status().isOk())
+                                .andExpect(jsonPath("$.size()").value(1))
+                                .andExpect(jsonPath("$[0].name").value("recipe0"));
+        }
+
+        @Test
+        public void RecipeController_GetRecipe_ReturnsEtagAndCacheControl() throws Exception {
+                // Arrange
+                when(recipeService.getRecipe("publicId")).thenReturn(recipeList.get(0));
+
+                // Act
+                ResultActions response = mockMvc.perform(get("/api/recipe/publicId"));
+
+                // Assert
+                response.andExpect(MockMvcResultMatchers.status().isOk())
+                                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG,
+                                                CoreMatchers.startsWith("\"")))
+                                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL,
+                                                "max-age=2592000, public, immutable"));
+        }
+
+        @Test
+        public void RecipeController_GetRecipe_ReturnsNotModifiedForMatchingEtag() throws Exception {
+                // Arrange
+                when(recipeService.getRecipe("publicId")).thenReturn(recipeList.get(0));
+                String etag = mockMvc.perform(get("/api/recipe/publicId"))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                // Act
+                ResultActions response = mockMvc.perform(get("/api/recipe/publicId")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+                // Assert
+                response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag))
+                                .andExpect(MockMvcResultMatchers.content().string(""));
+        }
+
+        @Test
+        public void RecipeController_GetRecipe_ReturnsPrecompressedBodyWhenGzipAccepted() throws Exception {
+                // Arrange
+                when(recipeService.getRecipe("publicId")).thenReturn(recipeList.get(0));
+
+                // Act
+                MockHttpServletResponse response = mockMvc.perform(get("/api/recipe/publicId")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                                .andReturn().getResponse();
+
+                // Assert: gzip variant with its own ETag, body decompresses to the JSON
+                Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+                Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+                Assertions.assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+                try (GZIPInputStream body = new GZIPInputStream(
+                                new ByteArrayInputStream(response.getContentAsByteArray()))) {
+                        Assertions.assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8))
+                                        .contains("\"name\":\"recipe0\"");
+                }
+        }
+
         @Test
         public void RecipeController_GetRecipe_ReturnsException() throws Exception {
                 when(recipeService.getRecipe("invalid"))
@@ -155,6 +263,31 @@ public class RecipeControllerTest {
                                 .andExpect(jsonPath("$[1].name").value("recipe1"));
         }
 
+        @Test
+        public void RecipeController_GetRecipeFeed_ReturnPageWithCursor() throws Exception {
+                // Arrange
+                RecipeFeedPageDto feedPage = RecipeFeedPageDto.builder()
+                                .recipes(recipeList.subList(0, 2))
+                                .nextCursor("next")
+                                .build();
+                when(recipeService.getRecipeFeed(0, 180, MealType.APPETIZER, DateFilter.ALL, "cursor", 2))
+                                .thenReturn(feedPage);
+
+                // Act
+                ResultActions response = mockMvc.perform(
+                                get("/api/recipe/all-recipes/feed")
+                                                .param("mealType", "APPETIZER")
+                                                .param("cursor", "cursor")
+                                                .param("size", String.valueOf(2))
+                                                .contentType(MediaType.APPLICATION_JSON));
+
+                // Assert
+                response.andExpect(MockMvcResultMatchers.status().isOk())
+                                .andExpect(jsonPath("$.recipes.length()", CoreMatchers.is(2)))
+                                .andExpect(jsonPath("$.recipes[0].name").value("recipe0"))
+                                .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
+
         @Test
         public void RecipeController_GetRecipes_ReturnEmptyList() throws Exception {
                 // Act
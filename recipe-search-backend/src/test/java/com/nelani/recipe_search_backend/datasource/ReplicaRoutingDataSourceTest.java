@@ -0,0 +1,183 @@
+package com.nelani.recipe_search_backend.datasource;
+
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.config.DataSourceConfig;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Two separate in-memory H2 databases stand in for the primary and the replica
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primaryDataSource;
+    private DataSource replicaDataSource;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        primaryDataSource = database("primary");
+        replicaDataSource = database("replica");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_ReadOnlyTransaction_ReadsFromReplica() {
+        // Arrange
+        ReplicaLagMonitor monitor = monitor("", Duration.ofSeconds(5));
+        monitor.check();
+        DataSource dataSource = routingDataSource(monitor);
+
+        // Act
+        String readOnly = serverName(dataSource, true);
+        String readWrite = serverName(dataSource, false);
+
+        // Assert
+        Assertions.assertThat(readOnly).isEqualTo("replica");
+        Assertions.assertThat(readWrite).isEqualTo("primary");
+        Assertions.assertThat(meterRegistry.get("recipe.datasource.reads").tag("pool", "replica").counter().count())
+                .isEqualTo(1.0);
+        Assertions.assertThat(meterRegistry.get("recipe.datasource.replica.healthy").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_LaggingReplica_FallsBackToPrimary() {
+        // Arrange: the lag query runs on the primary and reports the replica 30 seconds behind
+        ReplicaLagMonitor monitor = monitor("SELECT 30", Duration.ofSeconds(5));
+        monitor.check();
+        DataSource dataSource = routingDataSource(monitor);
+
+        // Act
+        String readOnly = serverName(dataSource, true);
+
+        // Assert
+        Assertions.assertThat(readOnly).isEqualTo("primary");
+        Assertions.assertThat(meterRegistry.get("recipe.datasource.replica.lag").gauge().value()).isEqualTo(30.0);
+        Assertions.assertThat(meterRegistry.get("recipe.datasource.reads").tag("pool", "primary").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_ReadAfterWrite_ReadsFromPrimaryUntilReplicaCatchesUp() {
+        // Arrange
+        ReplicaLagMonitor monitor = monitor("SELECT 0", Duration.ofMinutes(1));
+        monitor.check();
+        DataSource dataSource = routingDataSource(monitor);
+        String beforeWrite = serverName(dataSource, true);
+
+        // Act
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("INSERT INTO server (name) VALUES ('written')"));
+        String afterWrite = serverName(dataSource, true);
+
+        // Assert
+        Assertions.assertThat(beforeWrite).isEqualTo("replica");
+        Assertions.assertThat(afterWrite).isEqualTo("primary");
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_WriteOnOtherThread_KeepsReadsOnReplica() throws Exception {
+        // Arrange
+        ReplicaLagMonitor monitor = monitor("SELECT 0", Duration.ofMinutes(1));
+        monitor.check();
+        DataSource dataSource = routingDataSource(monitor);
+
+        // Act: another thread commits a write
+        Thread writer = new Thread(() -> new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status ->
+                        new JdbcTemplate(dataSource).update("INSERT INTO server (name) VALUES ('written')")));
+        writer.start();
+        writer.join();
+        String afterWrite = serverName(dataSource, true);
+
+        // Assert: only the writing thread has to wait for the replica to catch up
+        Assertions.assertThat(afterWrite).isEqualTo("replica");
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_RefreshAfterWrite_ReadsFromPrimary() throws Exception {
+        // Arrange: the replica passes the lag check but has not received the new row yet
+        ReplicaLagMonitor monitor = monitor("SELECT 0", Duration.ofMinutes(1));
+        monitor.check();
+        DataSource dataSource = routingDataSource(monitor);
+        SearchResultCache cache = new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1),
+                Duration.ofMinutes(5), 100, Runnable::run, null);
+        SearchResultCache.SearchLoader loader = (term, page, size) -> serverNames(dataSource);
+        List<RecipeDto> before = cache.get("chicken", 0, 5, loader);
+
+        // Act: the generator commits on its own thread, the refresh runs elsewhere
+        Thread writer = new Thread(() -> new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status ->
+                        new JdbcTemplate(dataSource).update("INSERT INTO server (name) VALUES ('written')")));
+        writer.start();
+        writer.join();
+        cache.refreshTerm("chicken");
+        List<RecipeDto> after = cache.get("chicken", 0, 5, loader);
+
+        // Assert
+        Assertions.assertThat(before).extracting(RecipeDto::getName).containsExactly("replica");
+        Assertions.assertThat(after).extracting(RecipeDto::getName).containsExactly("primary", "written");
+        Assertions.assertThat(serverName(dataSource, true)).isEqualTo("replica");
+    }
+
+    @Test
+    public void ReplicaLagMonitor_Check_ComparesSubSecondLag() {
+        // Arrange
+        ReplicaLagMonitor withinLag = monitor("SELECT 0.2", Duration.ofMillis(500));
+        ReplicaLagMonitor behindLag = monitor("SELECT 0.8", Duration.ofMillis(500));
+
+        // Act
+        withinLag.check();
+        behindLag.check();
+
+        // Assert
+        Assertions.assertThat(withinLag.isReplicaUsable()).isTrue();
+        Assertions.assertThat(behindLag.isReplicaUsable()).isFalse();
+    }
+
+    private ReplicaLagMonitor monitor(String lagQuery, Duration maxLag) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, lagQuery, maxLag, meterRegistry);
+    }
+
+    private DataSource routingDataSource(ReplicaLagMonitor monitor) {
+        return new DataSourceConfig().dataSource(primaryDataSource, replicaDataSource, monitor, meterRegistry);
+    }
+
+    // Reads the name of the database that served the transaction
+    private static String serverName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT name FROM server ORDER BY name LIMIT 1", String.class));
+    }
+
+    private static List<RecipeDto> serverNames(DataSource dataSource) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForList("SELECT name FROM server ORDER BY name", String.class).stream()
+                .map(name -> RecipeDto.builder().name(name).build())
+                .toList());
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.nelani.recipe_search_backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class RecipeMetricsTest {
+
+    @Test
+    public void RecipeMetrics_Call_TimesEachOutcomeSeparately() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RecipeMetrics recipeMetrics = new RecipeMetrics(registry);
+
+        // Act
+        String result = recipeMetrics.call(RecipeMetrics.DB_SEARCH, () -> "page", "source", "index");
+        Assertions.assertThatThrownBy(() -> recipeMetrics.call(RecipeMetrics.DB_SEARCH, () -> {
+            throw new IOException("database down");
+        }, "source", "index")).isInstanceOf(IOException.class);
+
+        // Assert
+        Assertions.assertThat(result).isEqualTo("page");
+        Assertions.assertThat(registry.get(RecipeMetrics.DB_SEARCH)
+                .tags("source", "index", "outcome", "success").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get(RecipeMetrics.DB_SEARCH)
+                .tags("source", "index", "outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void ExecutorMetrics_CountingAbortPolicy_CountsAndRejects() throws Exception {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1), ExecutorMetrics.countingAbortPolicy(registry, "recipeTaskExecutor"));
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+
+        // Act
+        Assertions.assertThatThrownBy(() -> executor.execute(blocked))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        // Assert
+        Assertions.assertThat(registry.get("executor.rejected").tag("name", "recipeTaskExecutor").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nelani.recipe_search_backend.notifications;
+
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
+import com.nelani.recipe_search_backend.throttling.UpstreamLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class EmailDispatcherTest {
+
+    private SmtpStub smtpStub;
+    private JavaMailSenderImpl mailSender;
+    private ExecutorService executor;
+    private EmailDispatcher emailDispatcher;
+
+    @BeforeEach
+    public void init() throws Exception {
+        smtpStub = new SmtpStub();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpStub.port());
+
+        executor = Executors.newCachedThreadPool();
+        emailDispatcher = new EmailDispatcher(mailSender, executor,
+                new UpstreamLimiter(20, 10, 10, Duration.ofSeconds(5)), new RecipeMetrics(new SimpleMeterRegistry()),
+                100, 1, 20, Duration.ofMillis(50), 3, Duration.ofMillis(10), Duration.ofMinutes(1));
+        emailDispatcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        emailDispatcher.stop();
+        executor.shutdownNow();
+        smtpStub.close();
+    }
+
+    @Test
+    public void EmailDispatcher_Enqueue_ReusesOneConnectionForABurst() throws Exception {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertThat(emailDispatcher.enqueue(message("user" + i + "@example.com"))).isTrue();
+        }
+
+        // Assert
+        awaitMessages(10);
+        Assertions.assertThat(smtpStub.connections()).isEqualTo(1);
+    }
+
+    @Test
+    public void EmailDispatcher_Enqueue_RetriesTemporaryFailures() throws Exception {
+        // Arrange
+        smtpStub.failNextData(2);
+
+        // Act
+        emailDispatcher.enqueue(message("user@example.com"));
+
+        // Assert
+        awaitMessages(1);
+        Assertions.assertThat(smtpStub.messages().get(0)).contains("Subject: Recipe");
+        Assertions.assertThat(smtpStub.connections()).isEqualTo(3);
+    }
+
+    private MimeMessage message(String to) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("recipes@example.com");
+        helper.setTo(to);
+        helper.setSubject("Recipe");
+        helper.setText("<p>Recipe</p>", true);
+        return message;
+    }
+
+    private void awaitMessages(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (smtpStub.messages().size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertThat(smtpStub.messages()).hasSize(count);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.nelani.recipe_search_backend.notifications;
+
+import com.nelani.recipe_search_backend.dto.IngredientDto;
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.StepDto;
+import com.nelani.recipe_search_backend.model.MealType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecipeEmailTemplateTest {
+
+    @Test
+    public void RecipeEmailTemplate_Render_FillsEveryPlaceholder() {
+        // Arrange
+        RecipeDto recipe = RecipeDto.builder()
+                .name("Chicken Curry")
+                .mealType(MealType.DINNER)
+                .cookTimeMinutes(45)
+                .ingredients(List.of(IngredientDto.builder().name("chicken").quantity("500 g").build()))
+                .steps(List.of(StepDto.builder().description("Brown the chicken").estimatedMinutes(10).build()))
+                .build();
+
+        // Act
+        String html = RecipeEmailTemplate.render(recipe);
+
+        // Assert
+        Assertions.assertThat(html)
+                .startsWith("<!DOCTYPE html>")
+                .contains("<strong>Chicken Curry</strong>")
+                .contains("<p><strong>Meal Type:</strong> DINNER</p>")
+                .contains("<p><strong>Cook Time:</strong> 45 minutes</p>")
+                .contains("<ul style=\"line-height:1.6;\"><li>500 g chicken</li></ul>")
+                .contains("<ol style=\"line-height:1.6;\"><li>Brown the chicken (Estimated: 10 min)</li></ol>")
+                .contains("width: 100%;")
+                .doesNotContain("{{");
+    }
+
+    @Test
+    public void RecipeEmailTemplate_Render_EscapesRecipeValues() {
+        // Arrange
+        RecipeDto recipe = RecipeDto.builder()
+                .name("Mac & <b>Cheese</b>")
+                .mealType(MealType.LUNCH)
+                .cookTimeMinutes(20)
+                .ingredients(List.of(IngredientDto.builder().name("\"sharp\" cheddar").quantity("1 cup").build()))
+                .steps(List.of())
+                .build();
+
+        // Act
+        String html = RecipeEmailTemplate.render(recipe);
+
+        // Assert
+        Assertions.assertThat(html)
+                .contains("<strong>Mac &amp; &lt;b&gt;Cheese&lt;/b&gt;</strong>")
+                .contains("<li>1 cup &quot;sharp&quot; cheddar</li>")
+                .doesNotContain("<b>Cheese</b>");
+    }
+
+}
@@ -1,17 +1,25 @@
 package com.nelani.recipe_search_backend.repository;
 
+import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
+import com.nelani.recipe_search_backend.mapper.RecipeMapper;
 import com.nelani.recipe_search_backend.model.Ingredient;
 import com.nelani.recipe_search_backend.model.MealType;
 import com.nelani.recipe_search_backend.model.Recipe;
 import com.nelani.recipe_search_backend.model.Step;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
@@ -20,8 +28,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
 @ActiveProfiles("test")
 public class RecipeRepositoryTest {
@@ -29,6 +38,9 @@ public class RecipeRepositoryTest {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private List<Recipe> recipeList;
 
     @BeforeEach
@@ -75,23 +87,43 @@ public class RecipeRepositoryTest {
 
         // Retrieve the saved recipe from DB and assert
         Pageable pageable = PageRequest.of(0, 5);
-        List<Recipe> retrievedRecipesList = recipeRepository.searchRecipes("recipe", pageable);
+        List<RecipeDto> retrievedRecipesList = recipeRepository.searchRecipes("recipe", pageable);
 
         Assertions.assertThat(retrievedRecipesList).isNotNull();
         Assertions.assertThat(retrievedRecipesList)
                 .hasSize(5)
-                .extracting(Recipe::getName)
+                .extracting(RecipeDto::getName)
                 .contains("recipe0", "recipe1", "recipe2", "recipe3", "recipe4");
         retrievedRecipesList.forEach(recipe -> {
-            Assertions.assertThat(recipe.getIngredients())
-                    .extracting(Ingredient::getName)
-                    .contains("ingredient");
-            Assertions.assertThat(recipe.getSteps())
-                    .extracting(Step::getDescription)
-                    .contains("description");
+            Assertions.assertThat(recipe.getPublicId()).isNotNull();
+            Assertions.assertThat(recipe.getMealType()).isEqualTo(MealType.APPETIZER);
+            Assertions.assertThat(recipe.getIngredients()).isNull();
+            Assertions.assertThat(recipe.getSteps()).isNull();
         });
     }
 
+    @Test
+    public void RecipeRepository_SearchRecipes_ProjectsWithoutLoadingEntities() {
+        // Arrange
+        recipeRepository.saveAll(recipeList);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<RecipeDto> retrievedRecipesList = recipeRepository.searchRecipes("recipe", PageRequest.of(0, 5));
+
+        // Assert: a single query and nothing added to the persistence context
+        Assertions.assertThat(retrievedRecipesList).hasSize(5);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+        Assertions.assertThat(entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+
     @Test
     public void RecipeRepository_CheckRecipe_FindMatchingRecipe() {
         // Arrange
@@ -124,11 +156,60 @@ public class RecipeRepositoryTest {
         Assertions.assertThat(recipeMatch).isFalse();
     }
 
+    @Test
+    public void RecipeRepository_FindExistingNames_ReturnOnlyMatchingNames() {
+        // Act
+        recipeRepository.saveAll(recipeList);
+
+        // Retrieve the existing names in a single query and assert
+        Set<String> existingNames = recipeRepository.findExistingNames(List.of("recipe0", "recipe3", "missing"));
+        Assertions.assertThat(existingNames).containsExactlyInAnyOrder("recipe0", "recipe3");
+    }
+
+    @Test
+    public void RecipeRepository_SearchRecipes_PaginatesInDatabase() {
+        // Act
+        recipeRepository.saveAll(recipeList);
+
+        // Retrieve two pages and assert they are disjoint and ordered
+        List<RecipeDto> firstPage = recipeRepository.searchRecipes("recipe", PageRequest.of(0, 2));
+        List<RecipeDto> secondPage = recipeRepository.searchRecipes("recipe", PageRequest.of(1, 2));
+        List<RecipeDto> lastPage = recipeRepository.searchRecipes("recipe", PageRequest.of(2, 2));
+
+        Assertions.assertThat(firstPage).extracting(RecipeDto::getName).containsExactly("recipe4", "recipe3");
+        Assertions.assertThat(secondPage).extracting(RecipeDto::getName).containsExactly("recipe2", "recipe1");
+        Assertions.assertThat(lastPage).extracting(RecipeDto::getName).containsExactly("recipe0");
+    }
+
+    @Test
+    public void RecipeRepository_SearchRecipes_MatchesIngredientNames() {
+        // Arrange
+        Recipe saveRecipe = createRecipe("publicId", "Plain Rice", "imgUrl", 10,
+                List.of(createIngredient("Basmati", "1 cup")), List.of(createStep("description", 10)));
+
+        // Act
+        recipeRepository.save(saveRecipe);
+
+        // Assert
+        List<RecipeDto> retrievedRecipesList = recipeRepository.searchRecipes("basmati", PageRequest.of(0, 5));
+        Assertions.assertThat(retrievedRecipesList).extracting(RecipeDto::getName).containsExactly("Plain Rice");
+    }
+
+    @Test
+    public void RecipeRepository_PaginatedCollectionFetch_FailsInsteadOfPaginatingInMemory() {
+        // Guard against in-memory pagination: this query shape must be rejected, not silently paged
+        Assertions.assertThatThrownBy(() -> entityManager.getEntityManager()
+                        .createQuery("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients", Recipe.class)
+                        .setMaxResults(5)
+                        .getResultList())
+                .hasMessageContaining("in-memory pagination");
+    }
+
     @Test
     public void RecipeRepository_SearchRecipes_GetEmptyList() {
         // Retrieve non-existent recipe from DB and assert
         Pageable pageable = PageRequest.of(0, 5);
-        List<Recipe> retrievedRecipesList = recipeRepository.searchRecipes("nonexistent", pageable);
+        List<RecipeDto> retrievedRecipesList = recipeRepository.searchRecipes("nonexistent", pageable);
 
         Assertions.assertThat(retrievedRecipesList).isNotNull();
         Assertions.assertThat(retrievedRecipesList).isEmpty();
@@ -156,6 +237,44 @@ public class RecipeRepositoryTest {
                 .hasFieldOrPropertyWithValue("description", "description");
     }
 
+    @Test
+    public void RecipeRepository_FindAllWithDetailsByPublicIdIn_LoadsInTwoQueries() {
+        // Arrange
+        for (int i = 0; i < recipeList.size(); i++) {
+            recipeList.get(i).setIngredients(List.of(createIngredient("ingredient" + i, "1 cup"),
+                    createIngredient("extra" + i, "2 cups")));
+            recipeList.get(i).setSteps(List.of(createStep("first" + i, 5), createStep("second" + i, 5)));
+        }
+        recipeRepository.saveAll(recipeList);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act: load and map every detail of several recipes
+        List<RecipeDto> details = recipeRepository.findAllWithDetailsByPublicIdIn(
+                        List.of("publicId", "publicId2", "publicId4")).stream()
+                .map(RecipeMapper::mapRecipeWithAllDetails)
+                .toList();
+
+        // Assert: one query for recipes + ingredients, one for steps, no lazy loads
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        Assertions.assertThat(details)
+                .extracting(RecipeDto::getName)
+                .containsExactlyInAnyOrder("recipe0", "recipe2", "recipe4");
+        details.forEach(detail -> {
+            Assertions.assertThat(detail.getIngredients()).hasSize(2);
+            Assertions.assertThat(detail.getSteps()).hasSize(2);
+        });
+    }
+
+    @Test
+    public void RecipeRepository_FindWithDetailsByPublicId_ReturnEmptyOptionalRecipe() {
+        Assertions.assertThat(recipeRepository.findWithDetailsByPublicId("missing")).isEmpty();
+    }
+
     @Test
     public void RecipeRepository_FindByPublicId_ReturnEmptyOptionalRecipe() {
         // Retrieve non-existent recipe from DB and assert
@@ -181,20 +300,16 @@ public class RecipeRepositoryTest {
         });
 
         // Assert
-        List<Recipe> retrievedRecipesList = recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate, pageable);
+        List<RecipeDto> retrievedRecipesList = recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate, pageable);
 
         Assertions.assertThat(retrievedRecipesList).isNotNull();
         Assertions.assertThat(retrievedRecipesList)
                 .hasSize(5)
-                .extracting(Recipe::getName)
+                .extracting(RecipeDto::getName)
                 .contains("recipe0", "recipe1", "recipe2", "recipe3", "recipe4");
         retrievedRecipesList.forEach(recipe -> {
-            Assertions.assertThat(recipe.getIngredients())
-                    .extracting(Ingredient::getName)
-                    .contains("ingredient");
-            Assertions.assertThat(recipe.getSteps())
-                    .extracting(Step::getDescription)
-                    .contains("description");
+            Assertions.assertThat(recipe.getCookTimeMinutes()).isEqualTo(10);
+            Assertions.assertThat(recipe.getImageUrl()).isEqualTo("imgUrl");
         });
     }
 
@@ -209,12 +324,59 @@ public class RecipeRepositoryTest {
         Pageable pageable = PageRequest.of(0, 5);
 
         // Assert
-        List<Recipe> retrievedRecipesList = recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate, pageable);
+        List<RecipeDto> retrievedRecipesList = recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate, pageable);
 
         Assertions.assertThat(retrievedRecipesList).isNotNull();
         Assertions.assertThat(retrievedRecipesList).isEmpty();
     }
 
+    @Test
+    public void RecipeRepository_GetRecipeFeedAfter_SeeksPastCursor() {
+        // Arrange: three recipes sharing a timestamp to exercise the id tie-breaker
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        recipeList.forEach(recipe -> recipe.setCreatedAt(createdAt.minusMinutes(recipe.getName().equals("recipe4") ? 1 : 0)));
+        recipeRepository.saveAll(recipeList);
+
+        // Act
+        LocalDateTime startDate = createdAt.minusDays(1);
+        LocalDateTime endDate = createdAt.plusDays(1);
+        List<RecipeSummaryRow> firstPage = recipeRepository.getRecipeFeed(0, 180, startDate, endDate, Limit.of(2));
+        RecipeSummaryRow last = firstPage.get(firstPage.size() - 1);
+        List<RecipeSummaryRow> secondPage = recipeRepository.getRecipeFeedAfter(0, 180, startDate, endDate,
+                last.getCreatedAt(), last.getId(), Limit.of(2));
+        RecipeSummaryRow secondLast = secondPage.get(secondPage.size() - 1);
+        List<RecipeSummaryRow> thirdPage = recipeRepository.getRecipeFeedAfter(0, 180, startDate, endDate,
+                secondLast.getCreatedAt(), secondLast.getId(), Limit.of(2));
+
+        // Assert: newest first, ties broken by id descending, no row repeated or skipped
+        Assertions.assertThat(firstPage).extracting(RecipeSummaryRow::getName).containsExactly("recipe3", "recipe2");
+        Assertions.assertThat(secondPage).extracting(RecipeSummaryRow::getName).containsExactly("recipe1", "recipe0");
+        Assertions.assertThat(thirdPage).extracting(RecipeSummaryRow::getName).containsExactly("recipe4");
+    }
+
+    @Test
+    public void RecipeRepository_GetRecipeFeedByMealType_FiltersMealTypeAndCookTime() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        recipeList.forEach(recipe -> recipe.setCreatedAt(createdAt));
+        recipeList.get(1).setMealType(MealType.DINNER);
+        recipeList.get(3).setCookTimeMinutes(200);
+        recipeRepository.saveAll(recipeList);
+
+        // Act
+        List<RecipeSummaryRow> appetizers = recipeRepository.getRecipeFeedByMealType(0, 180, MealType.APPETIZER,
+                createdAt.minusDays(1), createdAt.plusDays(1), Limit.of(10));
+        RecipeSummaryRow first = appetizers.get(0);
+        List<RecipeSummaryRow> afterFirst = recipeRepository.getRecipeFeedByMealTypeAfter(0, 180, MealType.APPETIZER,
+                createdAt.minusDays(1), createdAt.plusDays(1), first.getCreatedAt(), first.getId(), Limit.of(10));
+
+        // Assert
+        Assertions.assertThat(appetizers).extracting(RecipeSummaryRow::getName)
+                .containsExactly("recipe4", "recipe2", "recipe0");
+        Assertions.assertThat(afterFirst).extracting(RecipeSummaryRow::getName)
+                .containsExactly("recipe2", "recipe0");
+    }
+
     private Ingredient createIngredient(String name, String quantity) {
         return Ingredient.builder()
                 .name(name)
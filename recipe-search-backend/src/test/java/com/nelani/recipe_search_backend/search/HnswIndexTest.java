@@ -0,0 +1,87 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.search.HnswIndex.Neighbour;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    public void HnswIndex_Search_FindsMostExactNeighbours() {
+        // Arrange
+        Random random = new Random(7);
+        List<float[]> vectors = new ArrayList<>();
+        HnswIndex index = new HnswIndex(16, 100, 42);
+        for (int i = 0; i < 2000; i++) {
+            float[] vector = randomUnitVector(random);
+            vectors.add(vector);
+            index.add(i, vector);
+        }
+
+        // Act: compare the graph's top 10 with a brute force scan for 50 queries
+        int found = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomUnitVector(random);
+            Set<Long> exact = new HashSet<>(IntStream.range(0, vectors.size()).boxed()
+                    .sorted(Comparator.comparingDouble(i -> -dot(query, vectors.get(i))))
+                    .limit(10)
+                    .map(Integer::longValue)
+                    .toList());
+            found += (int) index.search(query, 10, 64).stream()
+                    .filter(neighbour -> exact.contains(neighbour.id()))
+                    .count();
+        }
+
+        // Assert: recall@10 of at least 90%
+        Assertions.assertThat(found / 500.0).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    public void HnswIndex_Search_ReturnsNeighboursMostSimilarFirst() {
+        // Arrange
+        HnswIndex index = new HnswIndex(4, 20, 42);
+        index.add(1L, new float[] { 1, 0 });
+        index.add(2L, new float[] { 0.8f, 0.6f });
+        index.add(3L, new float[] { 0, 1 });
+        index.add(1L, new float[] { 0, 1 });
+
+        // Act
+        List<Neighbour> neighbours = index.search(new float[] { 1, 0 }, 2, 10);
+
+        // Assert: duplicate ids are ignored
+        Assertions.assertThat(index.size()).isEqualTo(3);
+        Assertions.assertThat(neighbours).extracting(Neighbour::id).containsExactly(1L, 2L);
+        Assertions.assertThat(neighbours.get(0).similarity()).isCloseTo(1.0, Assertions.within(1e-6));
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
@@ -0,0 +1,115 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex.Match;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class IngredientBitmapIndexTest {
+
+    private IngredientBitmapIndex ingredientIndex;
+
+    @BeforeEach
+    public void init() {
+        ingredientIndex = new IngredientBitmapIndex();
+        ingredientIndex.index(1L, List.of("2 Chicken Thighs", "Tomatoes, diced", "rice"), MealType.DINNER, 45);
+        ingredientIndex.index(2L, List.of("chicken stock", "noodles"), MealType.LUNCH, 20);
+        ingredientIndex.index(3L, List.of("tomato", "rice"), MealType.LUNCH, 15);
+        ingredientIndex.index(4L, List.of("flour", "sugar", "eggs", "butter"), MealType.DESSERT, 60);
+        ingredientIndex.index(5L, List.of("rice", "egg"), MealType.BREAKFAST, 10);
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Normalize_DropsQuantitiesAndPlurals() {
+        Assertions.assertThat(IngredientDictionary.normalize("2 Large Tomatoes, diced")).isEqualTo("tomato");
+        Assertions.assertThat(IngredientDictionary.normalize("Fresh Blueberries")).isEqualTo("blueberry");
+        Assertions.assertThat(IngredientDictionary.normalize("peaches")).isEqualTo("peach");
+        Assertions.assertThat(IngredientDictionary.normalize("couscous")).isEqualTo("couscous");
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Search_CombinesAllOfAnyOfAndNoneOf() {
+        // Act
+        List<Long> allOf = ids(CookWithQuery.builder().allOf(List.of("chicken", "tomatoes")).build());
+        List<Long> anyOf = ids(CookWithQuery.builder().anyOf(List.of("noodles", "flour")).build());
+        List<Long> noneOf = ids(CookWithQuery.builder().allOf(List.of("rice")).noneOf(List.of("tomato")).build());
+
+        // Assert
+        Assertions.assertThat(allOf).containsExactly(1L);
+        Assertions.assertThat(anyOf).containsExactly(4L, 2L);
+        Assertions.assertThat(noneOf).containsExactly(5L);
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Search_RanksPantryMatchesByMissingIngredients() {
+        // Arrange
+        CookWithQuery query = CookWithQuery.builder()
+                .pantry(List.of("rice", "tomatoes", "eggs"))
+                .maxMissing(1)
+                .build();
+
+        // Act
+        List<Match> matches = ingredientIndex.search(query, 0, 10);
+
+        // Assert: recipes 3 and 5 are fully covered, recipe 1 lacks the chicken, recipe 4 lacks too much
+        Assertions.assertThat(matches).containsExactly(
+                new Match(5L, 0), new Match(3L, 0), new Match(1L, 1));
+        Assertions.assertThat(ingredientIndex.search(query, 1, 2)).containsExactly(new Match(1L, 1));
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Search_RanksManyCloseMatchesByScanning() {
+        // Arrange: more close matches than are worth sorting
+        for (long id = 10; id < 1_010; id++) {
+            List<String> ingredients = id % 2 == 0 ? List.of("rice", "peas") : List.of("rice", "peas", "ham");
+            ingredientIndex.index(id, ingredients, MealType.LUNCH, 30);
+        }
+        CookWithQuery query = CookWithQuery.builder().pantry(List.of("rice", "peas")).maxMissing(1).build();
+
+        // Act
+        List<Match> firstPage = ingredientIndex.search(query, 0, 2);
+        List<Match> secondGroup = ingredientIndex.search(query, 250, 2);
+
+        // Assert: the 500 complete matches come first, newest first
+        Assertions.assertThat(firstPage).containsExactly(new Match(1_008L, 0), new Match(1_006L, 0));
+        Assertions.assertThat(secondGroup).containsExactly(new Match(1_009L, 1), new Match(1_007L, 1));
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Search_AppliesMealTypeAndCookTimeFilters() {
+        // Act
+        List<Long> lunch = ids(CookWithQuery.builder().anyOf(List.of("rice", "noodles"))
+                .mealType(MealType.LUNCH).build());
+        List<Long> quick = ids(CookWithQuery.builder().anyOf(List.of("rice")).endTime(15).build());
+        List<Long> slow = ids(CookWithQuery.builder().anyOf(List.of("rice")).startTime(30).endTime(60).build());
+
+        // Assert
+        Assertions.assertThat(lunch).containsExactly(3L, 2L);
+        Assertions.assertThat(quick).containsExactly(5L, 3L);
+        Assertions.assertThat(slow).containsExactly(1L);
+    }
+
+    @Test
+    public void IngredientBitmapIndex_Index_AddsSavedRecipesOnce() {
+        // Act
+        ingredientIndex.index(6L, List.of("tomatoes"), MealType.SNACK, 5);
+        ingredientIndex.index(6L, List.of("noodles"), MealType.SNACK, 5);
+
+        // Assert
+        Assertions.assertThat(ingredientIndex.size()).isEqualTo(6);
+        Assertions.assertThat(ids(CookWithQuery.builder().allOf(List.of("tomato")).build()))
+                .containsExactly(6L, 3L, 1L);
+        Assertions.assertThat(ids(CookWithQuery.builder().allOf(List.of("noodles")).build()))
+                .containsExactly(2L);
+    }
+
+    private List<Long> ids(CookWithQuery query) {
+        return ingredientIndex.search(query, 0, 10).stream()
+                .map(Match::recipeId)
+                .toList();
+    }
+}
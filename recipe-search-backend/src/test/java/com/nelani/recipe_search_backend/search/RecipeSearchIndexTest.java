@@ -0,0 +1,60 @@
+package com.nelani.recipe_search_backend.search;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecipeSearchIndexTest {
+
+    private RecipeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void init() {
+        searchIndex = new RecipeSearchIndex();
+        searchIndex.index(1L, "Chicken Curry", List.of("chicken thighs", "curry paste", "coconut milk"));
+        searchIndex.index(2L, "Chocolate Cake", List.of("flour", "cocoa", "chicken stock"));
+        searchIndex.index(3L, "Chickpea Salad", List.of("chickpeas", "cucumber", "lemon"));
+        searchIndex.index(4L, "Beef Stew", List.of("beef", "carrots", "potatoes"));
+    }
+
+    @Test
+    public void RecipeSearchIndex_Search_RanksNameMatchesFirst() {
+        List<Long> results = searchIndex.search("chicken", 0, 10);
+
+        Assertions.assertThat(results).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void RecipeSearchIndex_Search_MatchesPrefixes() {
+        List<Long> results = searchIndex.search("Chick", 0, 10);
+
+        Assertions.assertThat(results).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    public void RecipeSearchIndex_Search_PaginatesRankedResults() {
+        List<Long> firstPage = searchIndex.search("chick", 0, 2);
+        List<Long> secondPage = searchIndex.search("chick", 1, 2);
+
+        Assertions.assertThat(firstPage).hasSize(2);
+        Assertions.assertThat(secondPage).hasSize(1);
+        Assertions.assertThat(firstPage).doesNotContainAnyElementsOf(secondPage);
+    }
+
+    @Test
+    public void RecipeSearchIndex_Index_ReplacesExistingRecipe() {
+        searchIndex.index(4L, "Lentil Soup", List.of("lentils"));
+
+        Assertions.assertThat(searchIndex.search("beef", 0, 10)).isEmpty();
+        Assertions.assertThat(searchIndex.search("lentil soup", 0, 10)).containsExactly(4L);
+        Assertions.assertThat(searchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void RecipeSearchIndex_Search_ReturnsEmptyListForUnknownTerm() {
+        Assertions.assertThat(searchIndex.search("nonexistent", 0, 10)).isEmpty();
+        Assertions.assertThat(searchIndex.search("   ", 0, 10)).isEmpty();
+    }
+}
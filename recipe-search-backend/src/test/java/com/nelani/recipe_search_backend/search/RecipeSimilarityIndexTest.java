@@ -0,0 +1,41 @@
+package com.nelani.recipe_search_backend.search;
+
+import com.nelani.recipe_search_backend.model.MealType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecipeSimilarityIndexTest {
+
+    private RecipeSimilarityIndex similarityIndex;
+
+    @BeforeEach
+    public void init() {
+        similarityIndex = new RecipeSimilarityIndex(256, 16, 100, 64);
+        similarityIndex.index(1L, "Spiced Chicken Stew", List.of("chicken thighs", "chili", "tomatoes"), MealType.DINNER);
+        similarityIndex.index(2L, "Chocolate Cake", List.of("flour", "cocoa", "sugar"), MealType.DESSERT);
+        similarityIndex.index(3L, "Beef Stew", List.of("beef", "carrots", "potatoes"), MealType.DINNER);
+        similarityIndex.index(4L, "Chickpea Salad", List.of("chickpeas", "cucumber", "lemon"), MealType.LUNCH);
+        similarityIndex.index(5L, "Chicken Noodle Soup", List.of("chicken breast", "noodles", "celery"), MealType.DINNER);
+    }
+
+    @Test
+    public void RecipeSimilarityIndex_Search_RanksClosestRecipeFirst() {
+        List<Long> results = similarityIndex.search("spicy chicken stew", 3);
+
+        Assertions.assertThat(results).hasSize(3);
+        Assertions.assertThat(results.get(0)).isEqualTo(1L);
+        Assertions.assertThat(results).doesNotContain(2L);
+    }
+
+    @Test
+    public void RecipeSimilarityIndex_SimilarTo_ExcludesTheRecipeItself() {
+        List<Long> results = similarityIndex.similarTo(3L, 2);
+
+        Assertions.assertThat(results).hasSize(2).doesNotContain(3L).contains(1L);
+        Assertions.assertThat(similarityIndex.similarTo(99L, 2)).isEmpty();
+        Assertions.assertThat(similarityIndex.search("   ", 2)).isEmpty();
+    }
+}
@@ -1,20 +1,47 @@
 package com.nelani.recipe_search_backend.service;
 
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
 import com.nelani.recipe_search_backend.model.MealType;
 import com.nelani.recipe_search_backend.model.Recipe;
+import com.nelani.recipe_search_backend.model.Step;
 import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
 import com.nelani.recipe_search_backend.service.serviceImpl.RecipeGenerator;
 import com.nelani.recipe_search_backend.sockets.RecipeSocket;
+import com.nelani.recipe_search_backend.throttling.Upstream;
+import com.nelani.recipe_search_backend.throttling.UpstreamLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.mockito.Mockito.*;
 
@@ -28,10 +55,34 @@ public class RecipeGeneratorTest {
     @Mock
     private RecipeSocket recipeSocket;
 
+    @Mock
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    private RecipeSimilarityIndex recipeSimilarityIndex;
+
+    @Mock
+    private IngredientBitmapIndex ingredientBitmapIndex;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Spy
+    private UpstreamLimiter upstreamLimiter = new UpstreamLimiter(20, 10, 10, Duration.ofSeconds(5));
+
+    @Spy
+    private RecipeMetrics recipeMetrics = new RecipeMetrics(new SimpleMeterRegistry());
+
     @Spy
     @InjectMocks
     private RecipeGenerator recipeGenerator;
 
+    @Captor
+    private ArgumentCaptor<List<Recipe>> recipesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<Recipe>> pushedCaptor;
+
     private List<Recipe> recipeList;
 
     @BeforeEach
@@ -47,14 +98,16 @@ public class RecipeGeneratorTest {
     @Test
     public void RecipeGenerator_GenerateAndSaveRecipes_ReturnVoid() {
         // Act
-        ArgumentCaptor<Recipe> recipeCaptor = ArgumentCaptor.forClass(Recipe.class);
         doReturn(recipeList).when(recipeGenerator).fetchRecipesFromAi(Mockito.anyString());
 
         recipeGenerator.generateAndSaveRecipes("searchWord");
 
         // Assert
-        verify(recipeRepository, times(5)).save(recipeCaptor.capture());
-        List<Recipe> savedRecipes = recipeCaptor.getAllValues();
+        verify(recipeRepository, times(1)).findExistingNames(Mockito.anyCollection());
+        verify(recipeRepository, times(1)).saveAll(recipesCaptor.capture());
+        verify(recipeRepository, never()).save(Mockito.any(Recipe.class));
+        verify(searchResultCache, times(1)).refreshTerm("searchWord");
+        List<Recipe> savedRecipes = recipesCaptor.getValue();
 
         Assertions.assertThat(savedRecipes).isNotNull();
         Assertions.assertThat(savedRecipes)
@@ -64,6 +117,230 @@ public class RecipeGeneratorTest {
 
     }
 
+    @Test
+    public void RecipeGenerator_GenerateAndSaveRecipes_FailsWhenNothingGenerated() {
+        // Arrange: the AI call failed and was answered with an empty list
+        doReturn(new ArrayList<Recipe>()).when(recipeGenerator).fetchRecipesFromAi(Mockito.anyString());
+
+        // Act
+        CompletableFuture<Void> generation = recipeGenerator.generateAndSaveRecipes("searchWord");
+
+        // Assert
+        Assertions.assertThat(generation).isCompletedExceptionally();
+        verify(recipeRepository, never()).saveAll(Mockito.anyList());
+        verify(searchResultCache, never()).refreshTerm(Mockito.anyString());
+    }
+
+    @Test
+    public void RecipeGenerator_SaveRecipes_SkipsExistingNames() {
+        // Arrange
+        when(recipeRepository.findExistingNames(Mockito.anyCollection())).thenReturn(Set.of("recipe1", "recipe3"));
+
+        // Act
+        List<Recipe> savedRecipes = recipeGenerator.saveRecipes(recipeList);
+
+        // Assert
+        Assertions.assertThat(savedRecipes)
+                .extracting(Recipe::getName)
+                .containsExactly("recipe0", "recipe2", "recipe4");
+    }
+
+    @Test
+    public void RecipeGenerator_SaveRecipes_FallsBackToSingleInsertsOnConflict() {
+        // Arrange
+        when(recipeRepository.saveAll(Mockito.anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(recipeRepository.save(Mockito.any(Recipe.class))).thenAnswer(invocation -> {
+            Recipe recipe = invocation.getArgument(0);
+            if (recipe.getName().equals("recipe2")) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return recipe;
+        });
+
+        // Act
+        List<Recipe> savedRecipes = recipeGenerator.saveRecipes(recipeList);
+
+        // Assert
+        verify(recipeRepository, times(5)).save(Mockito.any(Recipe.class));
+        Assertions.assertThat(savedRecipes)
+                .hasSize(4)
+                .extracting(Recipe::getName)
+                .doesNotContain("recipe2");
+    }
+
+    @Test
+    public void RecipeGenerator_ResolveImages_UsesPlaceholderAfterDeadline() {
+        // Arrange
+        ExecutorService imageExecutor = Executors.newFixedThreadPool(5);
+        RecipeGenerator generator = Mockito.spy(
+                new RecipeGenerator(recipeRepository, recipeSocket, recipeSearchIndex, recipeSimilarityIndex,
+                        ingredientBitmapIndex, imageExecutor, Runnable::run, new RestTemplate(), new RestTemplate(),
+                        new ObjectMapper(),
+                        upstreamLimiter, searchResultCache, recipeMetrics));
+        ReflectionTestUtils.setField(generator, "imageBatchTimeout", Duration.ofMillis(300));
+        doAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            if (name.equals("recipe2")) {
+                Thread.sleep(5_000);
+            }
+            return "https://images/" + name;
+        }).when(generator).recipeImageGenerator(Mockito.anyString());
+
+        // Act
+        long start = System.nanoTime();
+        generator.resolveImages(recipeList);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        imageExecutor.shutdownNow();
+
+        // Assert
+        Assertions.assertThat(elapsedMillis).isLessThan(2_000);
+        Assertions.assertThat(recipeList)
+                .extracting(Recipe::getImageUrl)
+                .containsExactly("https://images/recipe0", "https://images/recipe1",
+                        "https://via.placeholder.com/600x400.png?text=recipe2",
+                        "https://images/recipe3", "https://images/recipe4");
+    }
+
+    @Test
+    public void RecipeGenerator_ResolveImages_SkipsLookupsQueuedPastDeadline() throws Exception {
+        // Arrange: one image thread, the first lookup outlasts the batch deadline
+        ExecutorService imageExecutor = Executors.newSingleThreadExecutor();
+        RecipeGenerator generator = Mockito.spy(
+                new RecipeGenerator(recipeRepository, recipeSocket, recipeSearchIndex, recipeSimilarityIndex,
+                        ingredientBitmapIndex, imageExecutor, Runnable::run, new RestTemplate(), new RestTemplate(),
+                        new ObjectMapper(), upstreamLimiter, searchResultCache, recipeMetrics));
+        ReflectionTestUtils.setField(generator, "imageBatchTimeout", Duration.ofMillis(200));
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return "https://images/" + invocation.getArgument(0);
+        }).when(generator).recipeImageGenerator(Mockito.anyString());
+
+        // Act
+        generator.resolveImages(recipeList);
+        imageExecutor.shutdown();
+        boolean drained = imageExecutor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Assert
+        Assertions.assertThat(drained).isTrue();
+        verify(generator, times(1)).recipeImageGenerator(Mockito.anyString());
+        Assertions.assertThat(recipeList)
+                .extracting(Recipe::getImageUrl)
+                .allMatch(url -> url.startsWith("https://via.placeholder.com/"));
+    }
+
+    @Test
+    public void RecipeGenerator_ParseCompletion_StripsCodeFencesAndProse() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        RecipeGenerator generator = new RecipeGenerator(recipeRepository, recipeSocket, recipeSearchIndex,
+                recipeSimilarityIndex, ingredientBitmapIndex, Runnable::run, Runnable::run, new RestTemplate(),
+                new RestTemplate(), objectMapper, upstreamLimiter, searchResultCache, recipeMetrics);
+        String content = "Here you go:\n```json\n[{\"name\":\"Garlic Soup\",\"mealType\":\"LUNCH\","
+                + "\"cookTimeMinutes\":20}]\n```";
+        String responseJson = objectMapper.writeValueAsString(
+                Map.of("choices", List.of(Map.of("message", Map.of("content", content)))));
+        String refusalJson = objectMapper.writeValueAsString(
+                Map.of("choices", List.of(Map.of("message", Map.of("content", "Sorry, I can't help.")))));
+
+        // Act
+        List<Recipe> recipes = generator.parseCompletion(responseJson);
+        List<Recipe> noArray = generator.parseCompletion(refusalJson);
+
+        // Assert
+        Assertions.assertThat(recipes).extracting(Recipe::getName).containsExactly("Garlic Soup");
+        Assertions.assertThat(recipes.get(0).getMealType()).isEqualTo(MealType.LUNCH);
+        Assertions.assertThat(noArray).isEmpty();
+    }
+
+    @Test
+    public void RecipeGenerator_GenerateAndSaveRecipesStreaming_PushesEachRecipeAsItCompletes() throws Exception {
+        // Arrange: a stub chat-completions server streaming two recipes as SSE chunks
+        ObjectMapper objectMapper = new ObjectMapper();
+        CountDownLatch firstRecipePushed = new CountDownLatch(1);
+        AtomicBoolean pushedBeforeStreamEnded = new AtomicBoolean();
+        AtomicBoolean permitReleasedWhilePushing = new AtomicBoolean();
+        String firstRecipe = "{\"name\": \"Chicken Soup\", \"cookTimeMinutes\": 30, \"mealType\": \"SOUP\", "
+                + "\"ingredients\": [{\"name\": \"chicken\", \"quantity\": \"1 kg\"}], "
+                + "\"steps\": [{\"description\": \"Simmer {slowly}\", \"estimatedMinutes\": 30}]}";
+        String secondRecipe = "{\"name\": \"Chicken Salad\", \"cookTimeMinutes\": 10, \"mealType\": \"SALAD\", "
+                + "\"ingredients\": [{\"name\": \"lettuce\", \"quantity\": \"1 head\"}], "
+                + "\"steps\": [{\"description\": \"Toss\", \"estimatedMinutes\": 10}]}";
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                writeChunks(body, objectMapper, "```json\n[" + firstRecipe + ",");
+                try {
+                    pushedBeforeStreamEnded.set(firstRecipePushed.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                writeChunks(body, objectMapper, " " + secondRecipe + "]\n```");
+                body.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.start();
+
+        ExecutorService imageExecutor = Executors.newFixedThreadPool(2);
+        ExecutorService streamExecutor = Executors.newSingleThreadExecutor();
+        RecipeGenerator generator = Mockito.spy(
+                new RecipeGenerator(recipeRepository, recipeSocket, recipeSearchIndex, recipeSimilarityIndex,
+                        ingredientBitmapIndex, imageExecutor, streamExecutor, new RestTemplate(), new RestTemplate(),
+                        objectMapper, upstreamLimiter, searchResultCache, recipeMetrics));
+        ReflectionTestUtils.setField(generator, "aiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/v1/chat/completions");
+        ReflectionTestUtils.setField(generator, "huggingfaceApiKey", "test-key");
+        ReflectionTestUtils.setField(generator, "imageBatchTimeout", Duration.ofSeconds(1));
+        doReturn("https://images/recipe").when(generator).recipeImageGenerator(Mockito.anyString());
+        doAnswer(invocation -> {
+            if (firstRecipePushed.getCount() == 0) {
+                return null;
+            }
+            firstRecipePushed.countDown();
+            // The stream finishes and gives its permit back while the first recipe is still being pushed
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (upstreamLimiter.availablePermits(Upstream.HUGGING_FACE) < 20 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            permitReleasedWhilePushing.set(upstreamLimiter.availablePermits(Upstream.HUGGING_FACE) == 20);
+            return null;
+        }).when(recipeSocket).sendAiResults(Mockito.anyList(), Mockito.eq("chicken"));
+
+        // Act
+        try {
+            generator.generateAndSaveRecipesStreaming("chicken");
+        } finally {
+            server.stop(0);
+            imageExecutor.shutdownNow();
+            streamExecutor.shutdownNow();
+        }
+
+        // Assert
+        verify(recipeSocket, times(2)).sendAiResults(pushedCaptor.capture(), Mockito.eq("chicken"));
+        Assertions.assertThat(pushedBeforeStreamEnded).isTrue();
+        Assertions.assertThat(permitReleasedWhilePushing).isTrue();
+        Assertions.assertThat(pushedCaptor.getAllValues())
+                .extracting(recipes -> recipes.get(0).getName())
+                .containsExactly("Chicken Soup", "Chicken Salad");
+        Assertions.assertThat(pushedCaptor.getAllValues().get(0).get(0).getSteps())
+                .extracting(Step::getDescription)
+                .containsExactly("Simmer {slowly}");
+    }
+
+    // Splits the content into small deltas, one SSE event each
+    private void writeChunks(OutputStream body, ObjectMapper objectMapper, String content) throws IOException {
+        for (int i = 0; i < content.length(); i += 7) {
+            String delta = content.substring(i, Math.min(content.length(), i + 7));
+            String event = "{\"choices\": [{\"delta\": {\"content\": " + objectMapper.writeValueAsString(delta) + "}}]}";
+            body.write(("data: " + event + "\n\n").getBytes(StandardCharsets.UTF_8));
+            body.flush();
+        }
+    }
+
     private Recipe createRecipe(String publicId, String name, String imgUrl, int cookTimeMinutes) {
         return Recipe.builder()
                 .publicId(publicId)
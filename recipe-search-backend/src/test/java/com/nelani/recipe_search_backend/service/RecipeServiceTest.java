@@ -1,30 +1,47 @@
 package com.nelani.recipe_search_backend.service;
 
+import com.nelani.recipe_search_backend.cache.SearchResultCache;
+import com.nelani.recipe_search_backend.dto.CookWithQuery;
 import com.nelani.recipe_search_backend.dto.RecipeDto;
+import com.nelani.recipe_search_backend.dto.RecipeSummaryRow;
+import com.nelani.recipe_search_backend.mapper.RecipeMapper;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
 import com.nelani.recipe_search_backend.model.*;
 import com.nelani.recipe_search_backend.repository.RecipeRepository;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex;
+import com.nelani.recipe_search_backend.search.IngredientBitmapIndex.Match;
+import com.nelani.recipe_search_backend.search.RecipeSearchIndex;
+import com.nelani.recipe_search_backend.search.RecipeSimilarityIndex;
+import com.nelani.recipe_search_backend.service.serviceImpl.GenerationRegistry;
 import com.nelani.recipe_search_backend.service.serviceImpl.RecipeGenerator;
 import com.nelani.recipe_search_backend.service.serviceImpl.RecipeServiceImpl;
+import com.nelani.recipe_search_backend.throttling.GenerationAdmissionController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +54,26 @@ public class RecipeServiceTest {
     @Mock
     private RecipeGenerator recipeGenerator;
 
+    @Mock
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    private RecipeSimilarityIndex recipeSimilarityIndex;
+
+    @Mock
+    private IngredientBitmapIndex ingredientBitmapIndex;
+
+    @Spy
+    private GenerationAdmissionController generationAdmission = new GenerationAdmissionController(
+            new GenerationRegistry(Duration.ofMinutes(10)), 100, 30, 10, new SimpleMeterRegistry());
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(Duration.ofDays(1), Duration.ofMinutes(1),
+            Duration.ofMinutes(5), 500, Runnable::run, null);
+
+    @Spy
+    private RecipeMetrics recipeMetrics = new RecipeMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private RecipeServiceImpl recipeService;
 
@@ -63,7 +100,7 @@ public class RecipeServiceTest {
                 .ofNullable(createRecipe("publicId", "recipe0", "imgUrl", 10, ingredientsList, stepsList));
 
         // Act
-        when(recipeRepository.findByPublicId("publicId")).thenReturn(savedRecipe);
+        when(recipeRepository.findWithDetailsByPublicId("publicId")).thenReturn(savedRecipe);
 
         // Asserts
         RecipeDto retrievedRecipe = recipeService.getRecipe("publicId");
@@ -85,8 +122,8 @@ public class RecipeServiceTest {
     public void RecipeService_getRecipes_ReturnRecipesDto() {
         // Act
         Pageable pageable = PageRequest.of(0, 5);
-        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(recipeList);
-        doNothing().when(recipeGenerator).generateAndSaveRecipes(any(String.class));
+        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(summaries(recipeList));
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class))).thenReturn(CompletableFuture.completedFuture(null));
 
         // Assert
         List<RecipeDto> retrievedRecipeDtoList = recipeService.getRecipes("recipe", 0, 5);
@@ -100,12 +137,10 @@ public class RecipeServiceTest {
     @Test
     public void RecipeService_getRecipes_ReturnEmptyList() {
         // Arrange
-        List<Recipe> recipeList = new ArrayList<>();
-
         // Act
         Pageable pageable = PageRequest.of(0, 5);
-        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(recipeList);
-        doNothing().when(recipeGenerator).generateAndSaveRecipes(any(String.class));
+        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(List.of());
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class))).thenReturn(CompletableFuture.completedFuture(null));
 
         // Assert
         List<RecipeDto> retrievedRecipeDtoList = recipeService.getRecipes("recipe", 0, 5);
@@ -113,6 +148,148 @@ public class RecipeServiceTest {
         Assertions.assertThat(retrievedRecipeDtoList).isEmpty();
     }
 
+    @Test
+    public void RecipeService_getRecipes_ReturnsFallbackWhenGenerationIsRejected() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 5);
+        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(summaries(recipeList));
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class)))
+                .thenThrow(new TaskRejectedException("Executor queue full"));
+
+        // Act
+        List<RecipeDto> retrievedRecipeDtoList = recipeService.getRecipes("recipe", 0, 5);
+
+        // Assert
+        Assertions.assertThat(retrievedRecipeDtoList).hasSize(5);
+    }
+
+    @Test
+    public void RecipeService_getRecipes_UsesSearchIndexRanking() {
+        // Arrange
+        List<RecipeSummaryRow> rows = new ArrayList<>();
+        for (int i = 0; i < recipeList.size(); i++) {
+            Recipe recipe = recipeList.get(i);
+            rows.add(new RecipeSummaryRow((long) i + 1, LocalDateTime.now(), recipe.getPublicId(), recipe.getName(),
+                    recipe.getImageUrl(), recipe.getMealType(), recipe.getCookTimeMinutes()));
+        }
+        when(recipeSearchIndex.isReady()).thenReturn(true);
+        when(recipeSearchIndex.search("recipe", 0, 5)).thenReturn(List.of(3L, 1L));
+        when(recipeRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(rows.get(0), rows.get(2)));
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Assert
+        List<RecipeDto> retrievedRecipeDtoList = recipeService.getRecipes("recipe", 0, 5);
+        Assertions.assertThat(retrievedRecipeDtoList)
+                .extracting(RecipeDto::getName)
+                .containsExactly("recipe2", "recipe0");
+    }
+
+    @Test
+    public void RecipeService_GetSimilarRecipes_ReturnsNeighboursInRankOrder() {
+        // Arrange
+        when(recipeRepository.findIdByPublicId("publicId")).thenReturn(Optional.of(1L));
+        when(recipeSimilarityIndex.similarTo(1L, 2)).thenReturn(List.of(3L, 2L));
+        when(recipeRepository.findSummariesByIdIn(List.of(3L, 2L))).thenReturn(List.of(
+                new RecipeSummaryRow(2L, LocalDateTime.now(), "publicId1", "recipe1", "imgUrl", MealType.APPETIZER, 10),
+                new RecipeSummaryRow(3L, LocalDateTime.now(), "publicId2", "recipe2", "imgUrl", MealType.APPETIZER, 10)));
+
+        // Act
+        List<RecipeDto> similarRecipes = recipeService.getSimilarRecipes("publicId", 2);
+
+        // Assert
+        Assertions.assertThat(similarRecipes).extracting(RecipeDto::getName).containsExactly("recipe2", "recipe1");
+        assertThrows(IllegalArgumentException.class, () -> recipeService.getSimilarRecipes("missing", 2));
+        assertThrows(IllegalArgumentException.class, () -> recipeService.findSimilarRecipes("chicken", 0));
+    }
+
+    @Test
+    public void RecipeService_CookWith_ReturnsMissingCountsInRankOrder() {
+        // Arrange
+        CookWithQuery query = CookWithQuery.builder().pantry(List.of("rice", "tomato")).maxMissing(1).build();
+        when(ingredientBitmapIndex.search(query, 0, 2)).thenReturn(List.of(new Match(3L, 0), new Match(2L, 1)));
+        when(recipeRepository.findSummariesByIdIn(List.of(3L, 2L))).thenReturn(List.of(
+                new RecipeSummaryRow(2L, LocalDateTime.now(), "publicId1", "recipe1", "imgUrl", MealType.APPETIZER, 10),
+                new RecipeSummaryRow(3L, LocalDateTime.now(), "publicId2", "recipe2", "imgUrl", MealType.APPETIZER, 10)));
+
+        // Act
+        List<RecipeDto> recipes = recipeService.cookWith(query, 0, 2);
+
+        // Assert
+        Assertions.assertThat(recipes).extracting(RecipeDto::getName, RecipeDto::getMissingIngredients)
+                .containsExactly(Assertions.tuple("recipe2", 0), Assertions.tuple("recipe1", 1));
+        assertThrows(IllegalArgumentException.class, () -> recipeService.cookWith(new CookWithQuery(), 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> recipeService.cookWith(query, 0, 0));
+    }
+
+    @Test
+    public void RecipeService_getRecipes_CoalescesGenerationPerTerm() {
+        // Arrange
+        CompletableFuture<Void> running = new CompletableFuture<>();
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class))).thenReturn(running);
+
+        // Act
+        recipeService.getRecipes("Chicken", 0, 5);
+        recipeService.getRecipes(" chicken ", 0, 5);
+        running.complete(null);
+        recipeService.getRecipes("chicken", 0, 5);
+
+        // Assert: one generation while in flight, none during the cooldown
+        verify(recipeGenerator, times(1)).generateAndSaveRecipes(any(String.class));
+    }
+
+    @Test
+    public void RecipeService_getRecipes_SkipsGenerationForFullCachedPage() {
+        // Arrange: a full page, the cooldown is lifted so only the cache decides
+        when(recipeSearchIndex.isReady()).thenReturn(true);
+        when(recipeSearchIndex.search("recipe", 0, 5)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        List<RecipeSummaryRow> rows = new ArrayList<>();
+        for (int i = 0; i < recipeList.size(); i++) {
+            Recipe recipe = recipeList.get(i);
+            rows.add(new RecipeSummaryRow((long) i + 1, LocalDateTime.now(), recipe.getPublicId(), recipe.getName(),
+                    recipe.getImageUrl(), recipe.getMealType(), recipe.getCookTimeMinutes()));
+        }
+        when(recipeRepository.findSummariesByIdIn(List.of(1L, 2L, 3L, 4L, 5L))).thenReturn(rows);
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("No new recipes")));
+
+        // Act
+        recipeService.getRecipes("recipe", 0, 5);
+        recipeService.getRecipes("recipe", 0, 5);
+
+        // Assert: only the miss triggered a generation
+        verify(recipeGenerator, times(1)).generateAndSaveRecipes(any(String.class));
+    }
+
+    @Test
+    public void RecipeService_searchRecipes_SkipsCacheUntilIndexIsReady() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 5);
+        when(recipeRepository.searchRecipes("recipe", pageable)).thenReturn(summaries(recipeList));
+
+        // Act
+        recipeService.searchRecipes("Recipe", 0, 5);
+        recipeService.searchRecipes("recipe", 0, 5);
+
+        // Assert: database ordered pages never reach the cache the index ranked pages live in
+        verify(recipeRepository, times(2)).searchRecipes("recipe", pageable);
+        Assertions.assertThat(searchResultCache.contains("recipe", 0, 5)).isFalse();
+    }
+
+    @Test
+    public void RecipeService_getRecipes_RetriesGenerationAfterFailure() {
+        // Arrange: the AI call fails, so nothing was saved for the term
+        when(recipeGenerator.generateAndSaveRecipes(any(String.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("No new recipes")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        recipeService.getRecipes("Chicken", 0, 5);
+        recipeService.getRecipes("chicken", 0, 5);
+
+        // Assert: the failed run did not put the term on cooldown
+        verify(recipeGenerator, times(2)).generateAndSaveRecipes(any(String.class));
+    }
+
     @Test
     public void RecipeService_GetRecipesByTimeAndMealType_ReturnRecipeList() {
         // Arrange
@@ -126,7 +303,7 @@ public class RecipeServiceTest {
 
         // Act
         when(recipeRepository.getRecipesByTimeAndMealType(startTime, endTime, mealType, startDate, endDate, pageable))
-                .thenReturn(recipeList);
+                .thenReturn(summaries(recipeList));
 
         // Assert
         List<RecipeDto> retrievedRecipesList = recipeService.getRecipesByTimeAndMealType(startTime, endTime, mealType,
@@ -155,6 +332,12 @@ public class RecipeServiceTest {
         Assertions.assertThat(retrievedRecipesList).isEmpty();
     }
 
+    private List<RecipeDto> summaries(List<Recipe> recipes) {
+        return recipes.stream()
+                .map(RecipeMapper::mapRecipeWithMinimalDetails)
+                .toList();
+    }
+
     private Ingredient createIngredient(String name, String quantity) {
         return Ingredient.builder()
                 .name(name)
@@ -0,0 +1,35 @@
+package com.nelani.recipe_search_backend.service;
+
+import com.nelani.recipe_search_backend.service.serviceImpl.StreamingRecipeParser;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StreamingRecipeParserTest {
+
+    @Test
+    public void StreamingRecipeParser_Feed_EmitsObjectsAsTheyClose() {
+        StreamingRecipeParser parser = new StreamingRecipeParser();
+
+        Assertions.assertThat(parser.feed("```json\n[{\"name\": \"Soup\", \"steps\": [{\"estimated")).isEmpty();
+        Assertions.assertThat(parser.feed("Minutes\": 5}]},"))
+                .containsExactly("{\"name\": \"Soup\", \"steps\": [{\"estimatedMinutes\": 5}]}");
+        Assertions.assertThat(parser.feed(" {\"name\": \"Stew\"}]\n```"))
+                .containsExactly("{\"name\": \"Stew\"}");
+    }
+
+    @Test
+    public void StreamingRecipeParser_Feed_IgnoresBracesInsideStrings() {
+        StreamingRecipeParser parser = new StreamingRecipeParser();
+        String json = "[{\"name\": \"Curly {brace} \\\"pie\\\"\", \"quantity\": \"1}\"}]";
+
+        // Feed one character at a time to simulate tiny deltas
+        List<String> completed = new ArrayList<>();
+        json.chars().forEach(c -> completed.addAll(parser.feed(String.valueOf((char) c))));
+
+        Assertions.assertThat(completed)
+                .containsExactly("{\"name\": \"Curly {brace} \\\"pie\\\"\", \"quantity\": \"1}\"}");
+    }
+}
@@ -0,0 +1,83 @@
+package com.nelani.recipe_search_backend.sockets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelani.recipe_search_backend.metrics.RecipeMetrics;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.model.Recipe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecipeSocketTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private TopicSubscriptionRegistry subscriptionRegistry;
+
+    private RecipeSocket recipeSocket;
+
+    @BeforeEach
+    public void init() {
+        recipeSocket = new RecipeSocket(messagingTemplate, subscriptionRegistry, new ObjectMapper(),
+                new RecipeMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    public void RecipeSocket_SendAiResults_SkipsTopicsWithoutSubscribers() {
+        // Arrange
+        when(subscriptionRegistry.hasSubscribers("/topic/recipes/chicken")).thenReturn(false);
+
+        // Act
+        recipeSocket.sendAiResults(List.of(createRecipe("Chicken Curry")), "chicken");
+
+        // Assert
+        verify(messagingTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void RecipeSocket_SendAiResults_SendsSerializedPayload() {
+        // Arrange
+        when(subscriptionRegistry.hasSubscribers("/topic/recipes/chicken")).thenReturn(true);
+
+        // Act
+        recipeSocket.sendAiResults(List.of(createRecipe("Chicken Curry")), " Chicken ");
+
+        // Assert
+        ArgumentCaptor<Message<?>> message = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/recipes/chicken"), message.capture());
+        Assertions.assertThat(message.getValue().getPayload()).isInstanceOf(byte[].class);
+        Assertions.assertThat(new String((byte[]) message.getValue().getPayload(), StandardCharsets.UTF_8))
+                .contains("\"name\":\"Chicken Curry\"");
+    }
+
+    private static Recipe createRecipe(String name) {
+        Recipe recipe = new Recipe();
+        recipe.setPublicId("publicId");
+        recipe.setName(name);
+        recipe.setMealType(MealType.DINNER);
+        recipe.setCookTimeMinutes(30);
+        return recipe;
+    }
+
+}
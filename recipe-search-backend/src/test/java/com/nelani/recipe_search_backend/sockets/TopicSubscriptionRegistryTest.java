@@ -0,0 +1,60 @@
+package com.nelani.recipe_search_backend.sockets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+public class TopicSubscriptionRegistryTest {
+
+    private static final String DESTINATION = "/topic/recipes/chicken";
+
+    @Test
+    public void TopicSubscriptionRegistry_OnUnsubscribe_ForgetsTheDestination() {
+        // Arrange
+        TopicSubscriptionRegistry registry = new TopicSubscriptionRegistry();
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "session1", "sub-0", DESTINATION)));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "session2", "sub-0", DESTINATION)));
+
+        // Act
+        registry.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "session1", "sub-0", null)));
+        int remaining = registry.subscriberCount(DESTINATION);
+        registry.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "session2", "sub-0", null)));
+
+        // Assert
+        Assertions.assertThat(remaining).isEqualTo(1);
+        Assertions.assertThat(registry.hasSubscribers(DESTINATION)).isFalse();
+    }
+
+    @Test
+    public void TopicSubscriptionRegistry_OnDisconnect_DropsEverySubscriptionOfTheSession() {
+        // Arrange
+        TopicSubscriptionRegistry registry = new TopicSubscriptionRegistry();
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "session1", "sub-0", DESTINATION)));
+        registry.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "session1", "sub-1", "/topic/recipes/beef")));
+
+        // Act
+        Message<byte[]> disconnect = frame(StompCommand.DISCONNECT, "session1", null, null);
+        registry.onDisconnect(new SessionDisconnectEvent(this, disconnect, "session1", CloseStatus.NORMAL));
+
+        // Assert
+        Assertions.assertThat(registry.hasSubscribers(DESTINATION)).isFalse();
+        Assertions.assertThat(registry.hasSubscribers("/topic/recipes/beef")).isFalse();
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId,
+            String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(command);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+}
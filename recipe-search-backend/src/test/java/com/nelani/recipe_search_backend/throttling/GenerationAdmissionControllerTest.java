@@ -0,0 +1,102 @@
+package com.nelani.recipe_search_backend.throttling;
+
+import com.nelani.recipe_search_backend.service.serviceImpl.GenerationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public class GenerationAdmissionControllerTest {
+
+    @Test
+    public void GenerationAdmissionController_Submit_ShedsWhenPendingIsFull() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationAdmissionController admission = new GenerationAdmissionController(
+                new GenerationRegistry(Duration.ofMinutes(10)), 1, 60, 10, registry);
+        CompletableFuture<Void> running = new CompletableFuture<>();
+
+        // Act
+        boolean first = admission.submit("chicken", () -> running);
+        boolean duplicate = admission.submit(" Chicken ", () -> CompletableFuture.completedFuture(null));
+        boolean second = admission.submit("beef", () -> CompletableFuture.completedFuture(null));
+
+        // Assert
+        Assertions.assertThat(first).isTrue();
+        Assertions.assertThat(duplicate).isTrue();
+        Assertions.assertThat(second).isFalse();
+        Assertions.assertThat(shedCount(registry, "queue_full")).isEqualTo(1);
+
+        running.complete(null);
+        Assertions.assertThat(admission.pending()).isZero();
+        Assertions.assertThat(admission.submit("beef", () -> CompletableFuture.completedFuture(null))).isTrue();
+    }
+
+    @Test
+    public void GenerationAdmissionController_Submit_ShedsWhenRateIsExhausted() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationAdmissionController admission = new GenerationAdmissionController(
+                new GenerationRegistry(Duration.ofMinutes(10)), 100, 1, 2, registry);
+
+        // Act
+        boolean first = admission.submit("chicken", () -> CompletableFuture.completedFuture(null));
+        boolean second = admission.submit("beef", () -> CompletableFuture.completedFuture(null));
+        boolean third = admission.submit("pork", () -> CompletableFuture.completedFuture(null));
+
+        // Assert
+        Assertions.assertThat(first).isTrue();
+        Assertions.assertThat(second).isTrue();
+        Assertions.assertThat(third).isFalse();
+        Assertions.assertThat(shedCount(registry, "rate_limited")).isEqualTo(1);
+    }
+
+    @Test
+    public void GenerationAdmissionController_Submit_SwallowsExecutorRejection() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationRegistry generationRegistry = new GenerationRegistry(Duration.ofMinutes(10));
+        GenerationAdmissionController admission = new GenerationAdmissionController(
+                generationRegistry, 100, 60, 10, registry);
+
+        // Act
+        boolean admitted = admission.submit("chicken", () -> {
+            throw new TaskRejectedException("Executor queue full");
+        });
+
+        // Assert
+        Assertions.assertThat(admitted).isFalse();
+        Assertions.assertThat(shedCount(registry, "rejected")).isEqualTo(1);
+        Assertions.assertThat(admission.pending()).isZero();
+        Assertions.assertThat(generationRegistry.isInFlight("chicken")).isFalse();
+    }
+
+    @Test
+    public void GenerationAdmissionController_Submit_RefundsTokenOnExecutorRejection() {
+        // Arrange: a single token that does not refill during the test
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationAdmissionController admission = new GenerationAdmissionController(
+                new GenerationRegistry(Duration.ofMinutes(10)), 100, 0.001, 1, registry);
+
+        // Act
+        boolean rejected = admission.submit("chicken", () -> {
+            throw new TaskRejectedException("Executor queue full");
+        });
+        boolean retried = admission.submit("chicken", () -> CompletableFuture.completedFuture(null));
+
+        // Assert
+        Assertions.assertThat(rejected).isFalse();
+        Assertions.assertThat(retried).isTrue();
+        Assertions.assertThat(shedCount(registry, "rejected")).isEqualTo(1);
+        Assertions.assertThat(shedCount(registry, "rate_limited")).isZero();
+    }
+
+    private static double shedCount(MeterRegistry registry, String reason) {
+        return registry.get(GenerationAdmissionController.SHED_METRIC).tag("reason", reason).counter().count();
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.nelani.recipe_search_backend.throttling;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class UpstreamLimiterTest {
+
+    @Test
+    public void UpstreamLimiter_Call_LimitsEachUpstreamIndependently() throws Exception {
+        // Arrange
+        UpstreamLimiter limiter = new UpstreamLimiter(1, 1, 1, Duration.ofMillis(100));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowCall = CompletableFuture.runAsync(() -> limiter.run(Upstream.HUGGING_FACE, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assertions.assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        String image = limiter.call(Upstream.UNSPLASH, () -> "image");
+
+        // Assert
+        Assertions.assertThat(image).isEqualTo("image");
+        Assertions.assertThatThrownBy(() -> limiter.call(Upstream.HUGGING_FACE, () -> "recipes"))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        slowCall.get(5, TimeUnit.SECONDS);
+        Assertions.assertThat(limiter.availablePermits(Upstream.HUGGING_FACE)).isEqualTo(1);
+    }
+
+}
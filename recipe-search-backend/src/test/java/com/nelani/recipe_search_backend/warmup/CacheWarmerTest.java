@@ -0,0 +1,56 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.nelani.recipe_search_backend.model.DateFilter;
+import com.nelani.recipe_search_backend.model.MealType;
+import com.nelani.recipe_search_backend.service.RecipeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmerTest {
+
+    @Mock
+    private RecipeService recipeService;
+
+    @Mock
+    private QueryHistoryRecorder queryHistoryRecorder;
+
+    @Test
+    public void CacheWarmer_WarmUp_ReplaysTopQueriesWithoutGeneration() {
+        // Arrange
+        CacheWarmer cacheWarmer = new CacheWarmer(recipeService, queryHistoryRecorder, true, 3, 1000);
+        when(queryHistoryRecorder.topQueries(3)).thenReturn(List.of(
+                WarmupQuery.search("chicken", 0, 5),
+                WarmupQuery.filter(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20),
+                WarmupQuery.search("beef", 1, 5)));
+        lenient().when(recipeService.searchRecipes("beef", 1, 5)).thenThrow(new IllegalStateException("database down"));
+
+        // Act
+        cacheWarmer.warmUp();
+
+        // Assert
+        InOrder inOrder = inOrder(recipeService);
+        inOrder.verify(recipeService).searchRecipes("chicken", 0, 5);
+        inOrder.verify(recipeService).getRecipesByTimeAndMealType(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20);
+        inOrder.verify(recipeService).searchRecipes("beef", 1, 5);
+        verify(recipeService, never()).getRecipes(anyString(), anyInt(), anyInt());
+
+        WarmupStatus status = cacheWarmer.status();
+        Assertions.assertThat(status.getState()).isEqualTo(CacheWarmer.State.COMPLETED);
+        Assertions.assertThat(status.getTotal()).isEqualTo(3);
+        Assertions.assertThat(status.getCompleted()).isEqualTo(2);
+        Assertions.assertThat(status.getFailed()).isEqualTo(1);
+        Assertions.assertThat(status.getDurationMs()).isNotNull();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.nelani.recipe_search_backend.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelani.recipe_search_backend.model.DateFilter;
+import com.nelani.recipe_search_backend.model.MealType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class QueryHistoryRecorderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void QueryHistoryRecorder_TopQueries_OrdersByFrequency() {
+        // Arrange
+        QueryHistoryRecorder recorder = createRecorder(100);
+
+        // Act
+        recorder.recordSearch("beef", 0, 5);
+        recorder.recordSearch("Chicken", 0, 5);
+        recorder.recordSearch(" chicken ", 0, 5);
+        recorder.recordFilter(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20);
+        recorder.recordFilter(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20);
+        recorder.recordFilter(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20);
+        List<WarmupQuery> top = recorder.topQueries(2);
+
+        // Assert
+        Assertions.assertThat(top).containsExactly(
+                WarmupQuery.filter(0, 180, MealType.DINNER, DateFilter.ALL, 0, 20),
+                WarmupQuery.search("chicken", 0, 5));
+    }
+
+    @Test
+    public void QueryHistoryRecorder_Persist_KeepsCountsAcrossRestarts() {
+        // Arrange
+        QueryHistoryRecorder recorder = createRecorder(100);
+        recorder.recordSearch("chicken", 0, 5);
+        recorder.recordSearch("chicken", 0, 5);
+        recorder.recordSearch("beef", 0, 5);
+        recorder.persist();
+
+        // Act
+        QueryHistoryRecorder restarted = createRecorder(100);
+        restarted.recordSearch("beef", 0, 5);
+        restarted.recordSearch("beef", 0, 5);
+
+        // Assert
+        Assertions.assertThat(restarted.topQueries(10)).containsExactly(
+                WarmupQuery.search("beef", 0, 5),
+                WarmupQuery.search("chicken", 0, 5));
+    }
+
+    @Test
+    public void QueryHistoryRecorder_Record_DropsLeastPopularWhenFull() {
+        // Arrange
+        QueryHistoryRecorder recorder = createRecorder(4);
+        recorder.recordSearch("chicken", 0, 5);
+        recorder.recordSearch("chicken", 0, 5);
+        recorder.recordSearch("beef", 0, 5);
+        recorder.recordSearch("beef", 0, 5);
+        recorder.recordSearch("tofu", 0, 5);
+        recorder.recordSearch("lamb", 0, 5);
+
+        // Act
+        recorder.recordSearch("salmon", 0, 5);
+
+        // Assert
+        Assertions.assertThat(recorder.topQueries(10))
+                .extracting(WarmupQuery::getSearchWord)
+                .containsExactlyInAnyOrder("chicken", "beef", "salmon");
+    }
+
+    private QueryHistoryRecorder createRecorder(int maxTracked) {
+        return new QueryHistoryRecorder(directory.resolve("history.json"), maxTracked, new ObjectMapper());
+    }
+
+}